@@ -0,0 +1,69 @@
+package duke;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
+import duke.task.Deadline;
+import duke.task.Event;
+import duke.task.Task;
+import duke.task.ToDo;
+
+/** Generates task lists for the benchmarks. */
+final class BenchmarkTasks {
+
+    /** The words used to build task descriptions. */
+    private static final String[] WORDS = {
+        "read", "book", "write", "essay", "project", "meeting", "lunch", "call", "mom", "gym",
+        "study", "exam", "review", "code", "laundry", "groceries", "dentist", "report", "email", "plan"
+    };
+
+    /** The date the generated tasks are spread from. */
+    private static final LocalDateTime START = LocalDateTime.of(2020, 1, 1, 9, 0);
+
+    private BenchmarkTasks() {
+    }
+
+    /**
+     * Generates a description that is different for every number.
+     *
+     * @param i The number of the task.
+     * @return The description.
+     */
+    static String description(int i) {
+        return WORDS[i % WORDS.length] + " " + WORDS[(i / WORDS.length) % WORDS.length] + " " + i;
+    }
+
+    /**
+     * Generates a list of ToDos, Deadlines and Events with different descriptions,
+     * spread over about three years, with every fourth task done.
+     *
+     * @param size The number of tasks.
+     * @return The tasks.
+     */
+    static ArrayList<Task> generate(int size) {
+        ArrayList<Task> tasks = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            LocalDateTime date = START.plusHours(i % 25_000);
+            Task task;
+
+            switch (i % 3) {
+            case 0:
+                task = new ToDo(description(i));
+                break;
+            case 1:
+                task = new Deadline(description(i), date);
+                break;
+            default:
+                task = i % 2 == 0
+                    ? new Event(description(i), date, date.plusHours(2))
+                    : new Event(description(i), date);
+                break;
+            }
+
+            tasks.add(i % 4 == 0 ? task.markDone() : task);
+        }
+
+        return tasks;
+    }
+}
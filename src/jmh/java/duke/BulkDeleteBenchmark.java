@@ -0,0 +1,91 @@
+package duke;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import duke.exception.DukeException;
+
+/**
+ * Measures deleting a large share of a list at once: every other task, half the list as a range,
+ * the tasks that are done (every fourth task) and the tasks before a date.
+ * Each invocation starts from a fresh list with its indexes built, so the time includes updating them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BulkDeleteBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int size;
+
+    private TaskList taskList;
+    private int[] everyOtherTask;
+
+    /** Creates the task numbers of every other task. */
+    @Setup(Level.Trial)
+    public void setUpTaskNumbers() {
+        everyOtherTask = IntStream.rangeClosed(1, size).filter(taskNo -> taskNo % 2 == 1).toArray();
+    }
+
+    /** Creates a task list of the given size with its indexes built. */
+    @Setup(Level.Invocation)
+    public void setUp() {
+        taskList = new TaskList(BenchmarkTasks.generate(size));
+        taskList.findTasks("read");
+    }
+
+    /**
+     * Deletes every other task.
+     *
+     * @return The message listing the deleted tasks.
+     * @throws DukeException If a task number is invalid.
+     */
+    @Benchmark
+    public String deleteEveryOtherTask() throws DukeException {
+        return taskList.deleteTasks(everyOtherTask);
+    }
+
+    /**
+     * Deletes the first half of the list as a range.
+     *
+     * @return The message listing the deleted tasks.
+     * @throws DukeException If a task number is invalid.
+     */
+    @Benchmark
+    public String deleteRange() throws DukeException {
+        return taskList.deleteTasks(IntStream.rangeClosed(1, size / 2).toArray());
+    }
+
+    /**
+     * Deletes the tasks that are done.
+     *
+     * @return The message listing the deleted tasks.
+     * @throws DukeException If a task number is invalid.
+     */
+    @Benchmark
+    public String deleteDone() throws DukeException {
+        return taskList.deleteTasks(taskList.getDoneTaskNumbers());
+    }
+
+    /**
+     * Deletes the tasks before the middle of the dates the tasks are spread over.
+     *
+     * @return The message listing the deleted tasks.
+     * @throws DukeException If a task number is invalid.
+     */
+    @Benchmark
+    public String deleteBefore() throws DukeException {
+        return taskList.deleteTasks(taskList.getTaskNumbersBefore(LocalDate.of(2021, 6, 1)));
+    }
+}
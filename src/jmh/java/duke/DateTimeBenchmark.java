@@ -0,0 +1,50 @@
+package duke;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares {@link DateTimeDecoder} with {@link LocalDateTime#parse}, which the parser and the loader used before,
+ * on a date time as saved in the file, one as typed in a command, and a malformed one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DateTimeBenchmark {
+
+    @Param({"2020-09-18T23:59:00", "2020-09-18T23:59", "2020-09-18T23.59"})
+    public String dateTime;
+
+    /**
+     * Decodes the date time by hand.
+     *
+     * @return The date time, or null if it is malformed.
+     */
+    @Benchmark
+    public LocalDateTime decode() {
+        return DateTimeDecoder.decodeDateTime(dateTime, 0, dateTime.length());
+    }
+
+    /**
+     * Parses the date time with the java.time parser.
+     *
+     * @return The date time, or null if it is malformed.
+     */
+    @Benchmark
+    public LocalDateTime parse() {
+        try {
+            return LocalDateTime.parse(dateTime);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package duke;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import duke.command.Command;
+import duke.exception.DukeException;
+
+/**
+ * Measures how long the parser takes to make sense of user inputs.
+ * The gc profiler enabled in build.gradle reports the bytes allocated per parse (gc.alloc.rate.norm).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ParserBenchmark {
+
+    @Param({"todo read book", "deadline essay /by 2020-09-18T23:59", "done 1 2 3 4 5", "delete 12",
+        "find /exact read book", "list"})
+    public String command;
+
+    @Param({"2020-09-18T23:59:00", "2020-09-18", "23:59"})
+    public String dateTime;
+
+    /**
+     * Parses a user input.
+     *
+     * @return The parsed command.
+     * @throws DukeException If the input is invalid.
+     */
+    @Benchmark
+    public Command parse() throws DukeException {
+        return Parser.parse(command);
+    }
+
+    /**
+     * Parses a date time.
+     *
+     * @return The parsed date time.
+     * @throws DukeException If the date time is invalid.
+     */
+    @Benchmark
+    public Object getDateTime() throws DukeException {
+        return Parser.getDateTime(dateTime);
+    }
+}
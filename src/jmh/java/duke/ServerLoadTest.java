@@ -0,0 +1,127 @@
+package duke;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * A load test of the server mode: many clients connect at once, spread over a number of users,
+ * and each sends a mix of add, list, find and done commands as fast as it gets the responses.
+ * Prints the throughput over all clients and the percentiles of the response times.
+ *
+ * <p>Run it with {@code ./gradlew serverLoadTest}, or pass
+ * {@code -Pclients=<clients> -Pusers=<users> -Pcommands=<commands per client>}.
+ */
+public class ServerLoadTest {
+
+    /**
+     * Runs the load test.
+     *
+     * @param args The number of clients, users and commands per client (1000, 100 and 50 by default).
+     * @throws Exception If the server cannot be started.
+     */
+    public static void main(String[] args) throws Exception {
+        int clientCount = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int userCount = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        int commandCount = args.length > 2 ? Integer.parseInt(args[2]) : 50;
+
+        Path dataDirectory = Files.createTempDirectory("duke-load");
+        long[] responseNanos = new long[clientCount * commandCount];
+        AtomicInteger failedClients = new AtomicInteger();
+        CountDownLatch connected = new CountDownLatch(clientCount);
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] clients = new Thread[clientCount];
+
+        try (DukeServer server = new DukeServer(0, dataDirectory.toString())) {
+            server.start();
+
+            for (int c = 0; c < clientCount; c++) {
+                int clientNo = c;
+                clients[c] = new Thread(() -> {
+                    try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+                         BufferedReader in = new BufferedReader(
+                             new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                         PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8)) {
+
+                        send(in, out, "user" + clientNo % userCount);
+                        connected.countDown();
+                        start.await();
+
+                        for (int i = 0; i < commandCount; i++) {
+                            long sent = System.nanoTime();
+                            send(in, out, command(clientNo, i));
+                            responseNanos[clientNo * commandCount + i] = System.nanoTime() - sent;
+                        }
+
+                    } catch (IOException | InterruptedException e) {
+                        failedClients.incrementAndGet();
+                        connected.countDown();
+                    }
+                }, "load-client-" + c);
+                clients[c].start();
+            }
+
+            connected.await();
+            long startTime = System.nanoTime();
+            start.countDown();
+            for (Thread client : clients) {
+                client.join();
+            }
+            long elapsedNanos = System.nanoTime() - startTime;
+
+            long[] sorted = Arrays.stream(responseNanos).filter(nanos -> nanos > 0).sorted().toArray();
+            System.out.printf("%d clients (%d failed), %d users, %d commands in %d ms: %d commands per second%n",
+                clientCount, failedClients.get(), userCount, sorted.length, elapsedNanos / 1_000_000,
+                sorted.length * 1_000_000_000L / elapsedNanos);
+            System.out.printf("Response time: p50 %.2f ms, p99 %.2f ms, max %.2f ms%n",
+                percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 1.0));
+        } finally {
+            try (Stream<Path> files = Files.walk(dataDirectory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+            }
+        }
+    }
+
+    /**
+     * Returns the command a client sends at the given step: adding a task, listing a page,
+     * finding the client's tasks or marking the first task done.
+     */
+    private static String command(int clientNo, int step) {
+        switch (step % 4) {
+        case 0:
+            return "todo load " + clientNo + " " + step;
+        case 1:
+            return "list --page 1 --size 20";
+        case 2:
+            return "find " + clientNo;
+        default:
+            return "done 1";
+        }
+    }
+
+    /** Sends a line and reads the response up to the line that ends it. */
+    private static void send(BufferedReader in, PrintWriter out, String line) throws IOException {
+        out.println(line);
+        for (String response = in.readLine(); response != null && !response.equals("."); response = in.readLine()) {
+            // Only the time taken matters
+        }
+    }
+
+    private static double percentile(long[] sorted, double fraction) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(fraction * sorted.length) - 1)] / 1e6;
+    }
+}
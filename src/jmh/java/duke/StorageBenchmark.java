@@ -0,0 +1,101 @@
+package duke;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import duke.exception.DukeException;
+import duke.task.Task;
+
+/**
+ * Measures saving and loading the task list in each save format at list sizes from 10 to 1M tasks.
+ * The size of the save file is printed when each trial ends.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StorageBenchmark {
+
+    @Param({"10", "1000", "100000", "1000000"})
+    public int size;
+
+    @Param({"TEXT", "BINARY"})
+    public Storage.Format format;
+
+    private Path directory;
+    private Storage storage;
+    private List<Task> tasks;
+
+    /**
+     * Saves a generated task list of the given size.
+     *
+     * @throws IOException If the temporary directory cannot be created.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("duke-storage-benchmark");
+        storage = new Storage(directory.toString(), false, format);
+        tasks = BenchmarkTasks.generate(size);
+        storage.saveTasks(tasks);
+    }
+
+    /**
+     * Prints the size of the save file and deletes it.
+     *
+     * @throws IOException If the files cannot be deleted.
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        Path savedFile = directory.resolve(format == Storage.Format.BINARY ? "duke.bin" : "duke.txt");
+        System.out.printf("%n%s save file for %d tasks: %d bytes%n", format, size, Files.size(savedFile));
+
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    /** Saves the whole task list. */
+    @Benchmark
+    public void saveTasks() {
+        storage.saveTasks(tasks);
+    }
+
+    /**
+     * Loads and reads every task.
+     *
+     * @return The loaded tasks.
+     * @throws DukeException If the file cannot be loaded.
+     */
+    @Benchmark
+    public List<Task> load() throws DukeException {
+        return storage.load();
+    }
+
+    /**
+     * Loads the task list lazily and reads only its first task, as start-up followed by done 1 would.
+     *
+     * @return The first task.
+     * @throws DukeException If the file cannot be loaded.
+     */
+    @Benchmark
+    public Task loadLazily() throws DukeException {
+        List<Task> lazyTasks = storage.loadLazily();
+        return lazyTasks.isEmpty() ? null : lazyTasks.get(0);
+    }
+}
@@ -0,0 +1,143 @@
+package duke;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import duke.exception.DukeException;
+import duke.task.Task;
+
+/**
+ * Measures the task list operations behind each command at list sizes from 10 to 1M tasks.
+ * The add benchmarks keep adding new tasks to the list, so their time per operation should stay
+ * flat as the list grows if duplicate detection does not depend on the size of the list.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TaskListBenchmark {
+
+    @Param({"10", "1000", "100000", "1000000"})
+    public int size;
+
+    private TaskList taskList;
+    private int nextTask;
+
+    /** Creates a task list of the given size with its indexes built. */
+    @Setup(Level.Iteration)
+    public void setUp() {
+        taskList = new TaskList(BenchmarkTasks.generate(size));
+        taskList.findTasks("read");
+        nextTask = size;
+    }
+
+    /**
+     * Adds a new ToDo to the list.
+     *
+     * @throws DukeException If the ToDo is a duplicate.
+     */
+    @Benchmark
+    public void addToDo() throws DukeException {
+        taskList.addToDo(BenchmarkTasks.description(nextTask++));
+    }
+
+    /**
+     * Adds a new Deadline to the list.
+     *
+     * @throws DukeException If the Deadline is a duplicate.
+     */
+    @Benchmark
+    public void addDeadline() throws DukeException {
+        taskList.addDeadline(BenchmarkTasks.description(nextTask++) + " /by 2020-09-18T23:59");
+    }
+
+    /**
+     * Adds a new Event to the list.
+     *
+     * @throws DukeException If the Event is a duplicate.
+     */
+    @Benchmark
+    public void addEvent() throws DukeException {
+        taskList.addEvent(BenchmarkTasks.description(nextTask++) + " /at 2020-09-18T10:00 to 12:00");
+    }
+
+    /**
+     * Tries to add a ToDo that is already on the list.
+     *
+     * @return The exception thrown for the duplicate.
+     */
+    @Benchmark
+    public Object addDuplicate() {
+        try {
+            taskList.addToDo(BenchmarkTasks.description(0));
+            return null;
+        } catch (DukeException e) {
+            return e;
+        }
+    }
+
+    /**
+     * Finds tasks by keyword using the keyword index.
+     *
+     * @return The tasks found.
+     */
+    @Benchmark
+    public List<Task> findTasks() {
+        return taskList.findTasks("dentist", "exam");
+    }
+
+    /**
+     * Finds tasks by substring, going through every task.
+     *
+     * @return The tasks found.
+     */
+    @Benchmark
+    public List<Task> findSubstrings() {
+        return taskList.findTasks(TaskList.SearchMode.SUBSTRING, "entis");
+    }
+
+    /**
+     * Lists the tasks on a date using the date index.
+     *
+     * @return The tasks on the date.
+     */
+    @Benchmark
+    public List<Task> findTasksOnDate() {
+        LocalDate date = LocalDate.of(2020, 3, 1);
+        return taskList.findTasks(date, date);
+    }
+
+    /**
+     * Lists a page of 50 tasks from the middle of the list, which should take the same time at every list size.
+     *
+     * @return The page.
+     * @throws DukeException If the page is invalid.
+     */
+    @Benchmark
+    public String listPage() throws DukeException {
+        return taskList.processList("list --page " + ((size - 1) / 100 + 1) + " --size 50");
+    }
+
+    /**
+     * Deletes a task from the middle of the list and adds a new one so that the size stays the same.
+     *
+     * @return The deleted task.
+     * @throws DukeException If the index is invalid.
+     */
+    @Benchmark
+    public String deleteTasks() throws DukeException {
+        String deleted = taskList.deleteTasks(taskList.getTasks().size() / 2 + 1);
+        taskList.addToDo(BenchmarkTasks.description(nextTask++));
+        return deleted;
+    }
+}
@@ -0,0 +1,87 @@
+package duke;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import duke.task.Task;
+
+/**
+ * Compares a list of task objects with a {@link ColumnarTaskList} holding the same tasks.
+ * The heap taken by each list is printed when the trial starts; the benchmarks measure the cost of
+ * creating tasks from the columns when they are read.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TaskStoreBenchmark {
+
+    /** The ways of storing the tasks. */
+    public enum Store {
+        OBJECTS,
+        COLUMNAR
+    }
+
+    @Param({"100000", "1000000"})
+    public int size;
+
+    @Param({"OBJECTS", "COLUMNAR"})
+    public Store store;
+
+    private List<Task> tasks;
+
+    /** Creates the list of tasks and prints the heap it takes. */
+    @Setup
+    public void setUp() {
+        long heapBefore = usedHeap();
+
+        // The generated tasks are only kept by the object list
+        ArrayList<Task> generatedTasks = BenchmarkTasks.generate(size);
+        tasks = store == Store.COLUMNAR
+            ? new ColumnarTaskList(generatedTasks)
+            : generatedTasks;
+        generatedTasks = null;
+
+        System.out.printf("%n%s store for %d tasks: %d bytes%n", store, size, usedHeap() - heapBefore);
+    }
+
+    /**
+     * Reads every task in the list.
+     *
+     * @return The number of tasks done.
+     */
+    @Benchmark
+    public int readAll() {
+        int doneCount = 0;
+        for (Task task : tasks) {
+            if (task.isDone()) {
+                doneCount++;
+            }
+        }
+
+        return doneCount;
+    }
+
+    /**
+     * Returns the heap in use after a garbage collection.
+     *
+     * @return The heap in use in bytes.
+     */
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
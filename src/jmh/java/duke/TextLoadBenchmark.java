@@ -0,0 +1,63 @@
+package duke;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import duke.task.Task;
+
+/**
+ * Compares reading a text save file already in memory in parallel chunks, as {@link Storage#load()} does,
+ * with reading it line by line on one thread, to separate the decoding time from the time spent on disk.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TextLoadBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int size;
+
+    private ByteBuffer contents;
+
+    /** Encodes a generated task list of the given size as text. */
+    @Setup
+    public void setUp() {
+        StringBuilder savedTasks = new StringBuilder();
+        for (Task task : BenchmarkTasks.generate(size)) {
+            savedTasks.append(task.saveFormat()).append('\n');
+        }
+
+        contents = ByteBuffer.wrap(savedTasks.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads every task in parallel chunks.
+     *
+     * @return The tasks.
+     */
+    @Benchmark
+    public List<Task> readInParallel() {
+        return Storage.readText(contents.duplicate());
+    }
+
+    /**
+     * Reads every task on one thread.
+     *
+     * @return The tasks.
+     */
+    @Benchmark
+    public List<Task> readSequentially() {
+        return Storage.readTextChunk(contents.duplicate());
+    }
+}
@@ -0,0 +1,111 @@
+package duke.gui;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import javafx.application.Platform;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.control.Label;
+import javafx.scene.image.Image;
+import javafx.scene.layout.HBox;
+import javafx.scene.paint.ImagePattern;
+import javafx.scene.shape.Circle;
+
+/**
+ * Measures how many dialog boxes can be created per second, and how many messages a recycled
+ * dialog box can show per second. Needs a display, as the JavaFX toolkit is started first.
+ *
+ * <p>The baseline is {@link #createFxmlDialogs()}, which loads each box from the DialogBox.fxml that
+ * dialog boxes were loaded from before they were built in code. The file is kept in the benchmark resources.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class DialogBoxBenchmark {
+
+    private static final Message USER_MESSAGE = Message.fromUser("deadline essay /by 2020-09-18T23:59");
+    private static final Message DUKE_MESSAGE = new Message("Got it. I've added this task:\n"
+        + "[D][✗] essay (by: 18 Sep 2020, 11:59 pm)\nYou have 3 tasks on your list.");
+
+    private Image image;
+    private DialogBox recycledBox;
+
+    /**
+     * Starts the JavaFX toolkit and loads the image shown in the dialog boxes.
+     *
+     * @throws InterruptedException If interrupted while the toolkit starts.
+     */
+    @Setup
+    public void setUp() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        Platform.startup(started::countDown);
+        started.await();
+
+        image = new Image(getClass().getResourceAsStream("/images/DaDuke.png"));
+        recycledBox = new DialogBox();
+    }
+
+    /**
+     * Creates a dialog box for a user input and one for the reply.
+     *
+     * @return The reply's dialog box.
+     */
+    @Benchmark
+    public DialogBox createDialogs() {
+        new DialogBox().show(USER_MESSAGE, image);
+        DialogBox reply = new DialogBox();
+        reply.show(DUKE_MESSAGE, image);
+        return reply;
+    }
+
+    /**
+     * Loads a dialog box for a user input and one for the reply from FXML, as every box was before.
+     *
+     * @return The reply's dialog box.
+     * @throws IOException If the FXML cannot be loaded.
+     */
+    @Benchmark
+    public HBox createFxmlDialogs() throws IOException {
+        loadFxmlDialog(USER_MESSAGE);
+        return loadFxmlDialog(DUKE_MESSAGE);
+    }
+
+    /**
+     * Loads a dialog box from FXML and shows a message in it.
+     *
+     * @param message The message.
+     * @return The dialog box.
+     * @throws IOException If the FXML cannot be loaded.
+     */
+    private HBox loadFxmlDialog(Message message) throws IOException {
+        FXMLLoader fxmlLoader = new FXMLLoader(DialogBoxBenchmark.class.getResource("/view/DialogBox.fxml"));
+        HBox box = new HBox();
+        fxmlLoader.setRoot(box);
+        fxmlLoader.load();
+
+        ((Label) fxmlLoader.getNamespace().get("dialog")).setText(message.getText());
+        ((Circle) fxmlLoader.getNamespace().get("circleMask")).setFill(new ImagePattern(image));
+        return box;
+    }
+
+    /**
+     * Shows a user input and the reply in the same dialog box, as a recycled transcript cell does.
+     *
+     * @return The dialog box.
+     */
+    @Benchmark
+    public DialogBox recycleDialog() {
+        recycledBox.show(USER_MESSAGE, image);
+        recycledBox.show(DUKE_MESSAGE, image);
+        return recycledBox;
+    }
+}
@@ -0,0 +1,168 @@
+package duke;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import duke.task.Deadline;
+import duke.task.Event;
+import duke.task.Task;
+import duke.task.ToDo;
+
+/**
+ * The compact binary save format (duke.bin).
+ * The file starts with {@code MAGIC} and the number of tasks, followed by one record per task:
+ * a type tag ('T', 'D' or 'E'), a done flag, the length-prefixed UTF-8 description,
+ * and the dates of the task in epoch seconds (UTC).
+ */
+final class BinaryTaskFormat {
+
+    /** The first four bytes of a binary save file ("DUKE"). */
+    static final int MAGIC = 0x44554B45;
+
+    /** The size of the file header in bytes. */
+    static final int HEADER_SIZE = Integer.BYTES * 2;
+
+    /** The date saved in place of the end date of an Event without one. */
+    private static final long NO_END_DATE = Long.MIN_VALUE;
+
+    private BinaryTaskFormat() {
+    }
+
+    /**
+     * Writes the file header.
+     *
+     * @param out       The stream to write to.
+     * @param taskCount The number of tasks in the file.
+     * @throws IOException If the header cannot be written.
+     */
+    static void writeHeader(DataOutputStream out, int taskCount) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(taskCount);
+    }
+
+    /**
+     * Reads the file header.
+     *
+     * @param buffer The contents of the file, positioned at the start.
+     * @return The number of tasks in the file, or -1 if the buffer is not a binary save file.
+     */
+    static int readHeader(ByteBuffer buffer) {
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+            return -1;
+        }
+
+        return buffer.getInt();
+    }
+
+    /**
+     * Writes a task record.
+     *
+     * @param out  The stream to write to.
+     * @param task The task to be written.
+     * @throws IOException If the task cannot be written.
+     */
+    static void write(DataOutputStream out, Task task) throws IOException {
+        byte[] description = task.getTask().getBytes(StandardCharsets.UTF_8);
+
+        if (task instanceof Deadline) {
+            out.writeByte('D');
+        } else if (task instanceof Event) {
+            out.writeByte('E');
+        } else {
+            out.writeByte('T');
+        }
+
+        out.writeBoolean(task.isDone());
+        out.writeInt(description.length);
+        out.write(description);
+
+        if (task instanceof Deadline) {
+            out.writeLong(toEpochSecond(((Deadline) task).getDeadline()));
+        } else if (task instanceof Event) {
+            Event event = (Event) task;
+            out.writeLong(toEpochSecond(event.getStartDate()));
+            out.writeLong(event.getEndDate() != null ? toEpochSecond(event.getEndDate()) : NO_END_DATE);
+        }
+    }
+
+    /**
+     * Reads the task record at the position of the buffer, advancing the buffer past it.
+     *
+     * @param buffer The contents of the file.
+     * @return The task, or null if the record is not a valid task.
+     */
+    static Task read(ByteBuffer buffer) {
+        try {
+
+            byte taskCode = buffer.get();
+            boolean isDone = buffer.get() != 0;
+            byte[] description = new byte[buffer.getInt()];
+            buffer.get(description);
+            String taskText = new String(description, StandardCharsets.UTF_8);
+
+            switch (taskCode) {
+            case 'T':
+                ToDo toDo = new ToDo(taskText);
+                return isDone ? toDo.markDone() : toDo;
+                // Fallthrough
+
+            case 'D':
+                Deadline deadline = new Deadline(taskText, fromEpochSecond(buffer.getLong()));
+                return isDone ? deadline.markDone() : deadline;
+                // Fallthrough
+
+            case 'E':
+                LocalDateTime startDate = fromEpochSecond(buffer.getLong());
+                long endDate = buffer.getLong();
+                Event event = new Event(taskText, startDate,
+                    endDate != NO_END_DATE ? fromEpochSecond(endDate) : null);
+                return isDone ? event.markDone() : event;
+                // Fallthrough
+
+            default:
+                return null;
+                // Fallthrough
+            }
+
+        } catch (BufferUnderflowException | NegativeArraySizeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Moves the buffer past the task record at its position without decoding it.
+     *
+     * @param buffer The contents of the file.
+     * @return True if there was a complete record to skip.
+     */
+    static boolean skip(ByteBuffer buffer) {
+        if (buffer.remaining() < 2 + Integer.BYTES) {
+            return false;
+        }
+
+        byte taskCode = buffer.get();
+        buffer.get();
+        int length = buffer.getInt();
+        int dateLength = taskCode == 'D' ? Long.BYTES : taskCode == 'E' ? Long.BYTES * 2 : 0;
+
+        if (length < 0 || buffer.remaining() < length + dateLength) {
+            return false;
+        }
+
+        buffer.position(buffer.position() + length + dateLength);
+        return true;
+    }
+
+    private static long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static LocalDateTime fromEpochSecond(long epochSecond) {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,233 @@
+package duke;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+import duke.task.Deadline;
+import duke.task.Event;
+import duke.task.Task;
+import duke.task.ToDo;
+
+/**
+ * An unmodifiable task list that keeps its tasks in parallel primitive arrays instead of as objects:
+ * the type of each task, a bit set of the done tasks, the dates in epoch seconds (UTC),
+ * and the id of the description in a pool where each distinct description is stored once as UTF-8.
+ * A task object is created from the arrays each time a task is accessed, so a large list
+ * takes a fraction of the memory of a list of task objects.
+ *
+ * <p>The saved tasks are loaded into a ColumnarTaskList when Duke is started with the system property
+ * duke.columnar set to true.
+ */
+public class ColumnarTaskList extends AbstractList<Task> implements RandomAccess {
+
+    /** The date saved for tasks without that date. */
+    private static final long NO_DATE = Long.MIN_VALUE;
+
+    /** The type of each task ('T', 'D' or 'E'). */
+    private final byte[] types;
+
+    /** The indexes of the tasks that are done. */
+    private final BitSet doneTasks = new BitSet();
+
+    /** The deadline of each Deadline and the start date of each Event. */
+    private final long[] dates;
+
+    /** The end date of each Event. */
+    private final long[] endDates;
+
+    /** The id of the description of each task in the description pool. */
+    private final int[] descriptionIds;
+
+    /** The descriptions of the tasks, each stored once. */
+    private final DescriptionPool descriptions = new DescriptionPool();
+
+    /**
+     * Constructs a ColumnarTaskList containing the given tasks.
+     *
+     * @param tasks The tasks.
+     */
+    public ColumnarTaskList(Collection<? extends Task> tasks) {
+        int size = tasks.size();
+        types = new byte[size];
+        dates = new long[size];
+        endDates = new long[size];
+        descriptionIds = new int[size];
+
+        int index = 0;
+        for (Task task : tasks) {
+            write(index++, Objects.requireNonNull(task));
+        }
+    }
+
+    @Override
+    public Task get(int index) {
+        Objects.checkIndex(index, types.length);
+        String description = descriptions.get(descriptionIds[index]);
+        Task task;
+        switch (types[index]) {
+        case 'T':
+            task = new ToDo(description);
+            break;
+        case 'D':
+            task = new Deadline(description, fromEpochSecond(dates[index]));
+            break;
+        case 'E':
+            task = new Event(description, fromEpochSecond(dates[index]),
+                endDates[index] != NO_DATE ? fromEpochSecond(endDates[index]) : null);
+            break;
+        default:
+            return null;
+        }
+
+        return doneTasks.get(index) ? task.markDone() : task;
+    }
+
+    @Override
+    public int size() {
+        return types.length;
+    }
+
+    /**
+     * Returns whether the task at the given index is done, without creating the task.
+     *
+     * @param index The index of the task.
+     * @return True if the task is done.
+     */
+    public boolean isDone(int index) {
+        Objects.checkIndex(index, types.length);
+        return doneTasks.get(index);
+    }
+
+    /**
+     * Writes a task into the arrays at the given index.
+     *
+     * @param index The index of the task.
+     * @param task  The task.
+     */
+    private void write(int index, Task task) {
+        descriptionIds[index] = descriptions.intern(task.getTask());
+        doneTasks.set(index, task.isDone());
+        endDates[index] = NO_DATE;
+
+        if (task instanceof Deadline) {
+            types[index] = 'D';
+            dates[index] = toEpochSecond(((Deadline) task).getDeadline());
+        } else if (task instanceof Event) {
+            Event event = (Event) task;
+            types[index] = 'E';
+            dates[index] = toEpochSecond(event.getStartDate());
+            endDates[index] = event.getEndDate() != null ? toEpochSecond(event.getEndDate()) : NO_DATE;
+        } else {
+            types[index] = 'T';
+            dates[index] = NO_DATE;
+        }
+    }
+
+    private static long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static LocalDateTime fromEpochSecond(long epochSecond) {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * The descriptions of the tasks, stored once each as UTF-8 in a single byte array and
+     * found again through an open-addressing hash table of their ids.
+     */
+    private static class DescriptionPool {
+
+        /** The bytes of every description, one after another. */
+        private byte[] bytes = new byte[1024];
+
+        /** The number of bytes used. */
+        private int length;
+
+        /** The start of each description in the bytes, followed by the end of the last one. */
+        private int[] starts = new int[65];
+
+        /** The number of descriptions. */
+        private int count;
+
+        /** The ids of the descriptions plus one, by the hash of the description, or 0 for an empty slot. */
+        private int[] table = new int[128];
+
+        /**
+         * Returns the id of the description, adding it to the pool if it is not already there.
+         *
+         * @param description The description.
+         * @return The id of the description.
+         */
+        int intern(String description) {
+            byte[] encoded = description.getBytes(StandardCharsets.UTF_8);
+            int mask = table.length - 1;
+            for (int slot = hash(encoded, 0, encoded.length) & mask; ; slot = (slot + 1) & mask) {
+                int id = table[slot] - 1;
+                if (id < 0) {
+                    id = add(encoded);
+                    table[slot] = id + 1;
+                    if (count * 2 > table.length) {
+                        rehash();
+                    }
+                    return id;
+                } else if (Arrays.equals(bytes, starts[id], starts[id + 1], encoded, 0, encoded.length)) {
+                    return id;
+                }
+            }
+        }
+
+        /**
+         * Returns the description with the given id.
+         *
+         * @param id The id of the description.
+         * @return The description.
+         */
+        String get(int id) {
+            return new String(bytes, starts[id], starts[id + 1] - starts[id], StandardCharsets.UTF_8);
+        }
+
+        private int add(byte[] encoded) {
+            if (length + encoded.length > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length + (bytes.length >> 1), length + encoded.length));
+            }
+            if (count + 2 > starts.length) {
+                starts = Arrays.copyOf(starts, starts.length + (starts.length >> 1));
+            }
+
+            System.arraycopy(encoded, 0, bytes, length, encoded.length);
+            length += encoded.length;
+            starts[count + 1] = length;
+            return count++;
+        }
+
+        private void rehash() {
+            int[] newTable = new int[table.length * 2];
+            int mask = newTable.length - 1;
+            for (int id = 0; id < count; id++) {
+                int slot = hash(bytes, starts[id], starts[id + 1]) & mask;
+                while (newTable[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                newTable[slot] = id + 1;
+            }
+
+            table = newTable;
+        }
+
+        private static int hash(byte[] bytes, int from, int to) {
+            int hash = 0;
+            for (int i = from; i < to; i++) {
+                hash = 31 * hash + bytes[i];
+            }
+
+            return hash ^ (hash >>> 16);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package duke;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** A Java Flight Recorder event covering the execution of a command, including the saving it does. */
+@Name("duke.Command")
+@Label("Command")
+@Category("Duke")
+@Description("A command being executed on the task list")
+@StackTrace(false)
+final class CommandEvent extends Event {
+
+    @Label("Command")
+    @Description("The type of the command, such as todo or list")
+    String command;
+
+    @Label("Failed")
+    boolean isFailed;
+}
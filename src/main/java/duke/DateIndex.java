@@ -0,0 +1,115 @@
+package duke;
+
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.List;
+import java.util.TreeMap;
+
+import duke.task.Task;
+import duke.task.ToDo;
+
+/**
+ * An immutable sorted index from dates to the positions of the tasks occurring on them.
+ * ToDos have no date of their own and are treated as occurring today.
+ * Adding a task creates a new version of the index, which shares most of its entries with the old one.
+ */
+final class DateIndex {
+
+    /** The index of no tasks. */
+    static final DateIndex EMPTY = new DateIndex(PersistentSortedMap.empty(), null);
+
+    /** The positions of the tasks occurring on each date. */
+    private final PersistentSortedMap<LocalDate, TaskPositions> tasksByDate;
+
+    /** The positions of the ToDos. */
+    private final TaskPositions toDoPositions;
+
+    private DateIndex(PersistentSortedMap<LocalDate, TaskPositions> tasksByDate, TaskPositions toDoPositions) {
+        this.tasksByDate = tasksByDate;
+        this.toDoPositions = toDoPositions;
+    }
+
+    /**
+     * Creates the index of a list of tasks.
+     *
+     * @param tasks The tasks.
+     * @return The index.
+     */
+    static DateIndex of(List<Task> tasks) {
+        TreeMap<LocalDate, TaskPositions> tasksByDate = new TreeMap<>();
+        TaskPositions toDoPositions = null;
+
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            int position = i;
+            if (task instanceof ToDo) {
+                toDoPositions = TaskPositions.push(toDoPositions, position);
+            } else {
+                tasksByDate.compute(task.getDate(), (date, positions) -> TaskPositions.push(positions, position));
+            }
+        }
+
+        return new DateIndex(PersistentSortedMap.of(tasksByDate), toDoPositions);
+    }
+
+    /**
+     * Returns the index with a task added after all the indexed tasks.
+     *
+     * @param position The position of the task, which is the number of indexed tasks.
+     * @param task     The task.
+     * @return The new index.
+     */
+    DateIndex add(int position, Task task) {
+        if (task instanceof ToDo) {
+            return new DateIndex(tasksByDate, TaskPositions.push(toDoPositions, position));
+        }
+
+        LocalDate date = task.getDate();
+        return new DateIndex(tasksByDate.put(date, TaskPositions.push(tasksByDate.get(date), position)),
+            toDoPositions);
+    }
+
+    /**
+     * Returns the index without the last task added to it.
+     *
+     * @param position The position of the task.
+     * @param task     The task.
+     * @return The new index.
+     */
+    DateIndex removeLast(int position, Task task) {
+        if (task instanceof ToDo) {
+            return new DateIndex(tasksByDate, TaskPositions.pop(toDoPositions, position));
+        }
+
+        LocalDate date = task.getDate();
+        return new DateIndex(tasksByDate.put(date, TaskPositions.pop(tasksByDate.get(date), position)),
+            toDoPositions);
+    }
+
+    /**
+     * Collects the positions of the tasks occurring between the given dates.
+     *
+     * @param from  The first date, inclusive.
+     * @param to    The last date, inclusive.
+     * @param found The set to add the positions of the tasks to.
+     */
+    void find(LocalDate from, LocalDate to, BitSet found) {
+        tasksByDate.forEachValue(from, true, to, true, positions -> TaskPositions.addTo(positions, found));
+
+        LocalDate today = LocalDate.now();
+        if (!today.isBefore(from) && !today.isAfter(to)) {
+            TaskPositions.addTo(toDoPositions, found);
+        }
+    }
+
+    /**
+     * Collects the positions of the tasks with a date before the given date.
+     * ToDos have no date of their own, so they are never included.
+     *
+     * @param date  The date, exclusive.
+     * @param found The set to add the positions of the tasks to.
+     */
+    void findBefore(LocalDate date, BitSet found) {
+        tasksByDate.forEachValue(null, false, date, false, positions -> TaskPositions.addTo(positions, found));
+    }
+}
@@ -0,0 +1,126 @@
+package duke;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.Month;
+import java.time.Year;
+
+/**
+ * Decodes ISO dates and times (2020-08-27, 23:59, 23:59:30, 2020-08-27T23:59 and 2020-08-27T23:59:30)
+ * by reading their digits directly, instead of going through {@link java.time.format.DateTimeFormatter}.
+ * Malformed input gives null rather than an exception, as it is expected from user input.
+ */
+final class DateTimeDecoder {
+
+    /** The length of a date (yyyy-mm-dd). */
+    private static final int DATE_LENGTH = 10;
+
+    /** The length of a time without seconds (hh:mm). */
+    private static final int SHORT_TIME_LENGTH = 5;
+
+    /** The length of a time with seconds (hh:mm:ss). */
+    private static final int TIME_LENGTH = 8;
+
+    private DateTimeDecoder() {
+    }
+
+    /**
+     * Decodes a date time (yyyy-mm-ddThh:mm or yyyy-mm-ddThh:mm:ss).
+     *
+     * @param text  The text containing the date time.
+     * @param start The start of the date time.
+     * @param end   The end of the date time.
+     * @return The date time, or null if the text is not a valid date time.
+     */
+    static LocalDateTime decodeDateTime(CharSequence text, int start, int end) {
+        int timeStart = start + DATE_LENGTH + 1;
+        if (start < 0 || end > text.length() || timeStart > end || text.charAt(timeStart - 1) != 'T') {
+            return null;
+        }
+
+        LocalDate date = decodeDate(text, start, timeStart - 1);
+        LocalTime time = decodeTime(text, timeStart, end);
+
+        return date == null || time == null
+            ? null
+            : LocalDateTime.of(date, time);
+    }
+
+    /**
+     * Decodes a date (yyyy-mm-dd).
+     *
+     * @param text  The text containing the date.
+     * @param start The start of the date.
+     * @param end   The end of the date.
+     * @return The date, or null if the text is not a valid date.
+     */
+    static LocalDate decodeDate(CharSequence text, int start, int end) {
+        if (start < 0 || end > text.length() || end - start != DATE_LENGTH
+            || text.charAt(start + 4) != '-' || text.charAt(start + 7) != '-') {
+            return null;
+        }
+
+        int year = readDigits(text, start, 4);
+        int month = readDigits(text, start + 5, 2);
+        int day = readDigits(text, start + 8, 2);
+
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > Month.of(month).length(Year.isLeap(year))) {
+            return null;
+        }
+
+        return LocalDate.of(year, month, day);
+    }
+
+    /**
+     * Decodes a time (hh:mm or hh:mm:ss).
+     *
+     * @param text  The text containing the time.
+     * @param start The start of the time.
+     * @param end   The end of the time.
+     * @return The time, or null if the text is not a valid time.
+     */
+    static LocalTime decodeTime(CharSequence text, int start, int end) {
+        int length = end - start;
+        if (start < 0 || end > text.length() || length != SHORT_TIME_LENGTH && length != TIME_LENGTH
+            || text.charAt(start + 2) != ':') {
+            return null;
+        }
+
+        int hour = readDigits(text, start, 2);
+        int minute = readDigits(text, start + 3, 2);
+        int second = 0;
+        if (length == TIME_LENGTH) {
+            second = text.charAt(start + 5) == ':'
+                ? readDigits(text, start + 6, 2)
+                : -1;
+        }
+
+        if (hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return null;
+        }
+
+        return LocalTime.of(hour, minute, second);
+    }
+
+    /**
+     * Reads a number made of a fixed count of decimal digits.
+     *
+     * @param text  The text containing the number.
+     * @param start The start of the number.
+     * @param count The number of digits.
+     * @return The number, or -1 if any of the characters is not a digit.
+     */
+    private static int readDigits(CharSequence text, int start, int count) {
+        int number = 0;
+        for (int i = start; i < start + count; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            number = number * 10 + digit;
+        }
+
+        return number;
+    }
+}
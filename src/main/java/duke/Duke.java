@@ -1,8 +1,18 @@
 package duke;
 
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+
 import duke.command.Command;
 import duke.exception.DukeException;
 import duke.gui.Message;
+import duke.task.Task;
 
 /** The duke bot that stores your tasks. */
 public class Duke {
@@ -13,20 +23,57 @@ public class Duke {
     private final Storage storage;
     /** Contains the task list and add/delete operations for the task list. */
     private TaskList tasks;
+    /** Times the commands and storage operations, for the stats command. */
+    private final Metrics metrics;
 
     /**
      * Constructs a Duke bot.
+     * If the save file is damaged, the newest intact generation of it is recovered instead.
      *
      * @param filePath The filepath to store the data in.
      */
     public Duke(String filePath) {
         ui = new Ui();
-        storage = new Storage(filePath);
+        metrics = new Metrics();
+        boolean isJournaled = Boolean.getBoolean("duke.journal");
+        Duration saveDelay = Duration.ofMillis(Math.max(Long.getLong("duke.saveDelay", 0L), 0L));
+        storage = new Storage(filePath, isJournaled, Storage.Format.TEXT, saveDelay, metrics);
+
+        int historyDepth = Math.max(Integer.getInteger("duke.historyDepth", TaskList.DEFAULT_HISTORY_DEPTH), 0);
+        try {
+            List<Task> savedTasks;
+            if (Boolean.getBoolean("duke.columnar")) {
+                savedTasks = storage.loadColumnar();
+            } else if (Boolean.getBoolean("duke.lazyLoad")) {
+                savedTasks = storage.loadLazily();
+            } else {
+                savedTasks = storage.load();
+            }
+            tasks = new TaskList(savedTasks, storage.getHistory(), historyDepth);
+        } catch (DukeException e) {
+            tasks = recoverTasks(historyDepth);
+        }
+
+        Long statsInterval = Long.getLong("duke.statsInterval");
+        if (statsInterval != null && statsInterval > 0) {
+            metrics.startDump(Paths.get(filePath, "stats.txt"), Duration.ofSeconds(statsInterval));
+        }
+    }
+
+    /**
+     * Recovers the tasks from the newest intact generation of the save file.
+     *
+     * @param historyDepth The number of changes that can be undone.
+     * @return The recovered task list, or an empty task list if no generation is intact.
+     */
+    private TaskList recoverTasks(int historyDepth) {
         try {
-            tasks = new TaskList(storage.load());
+            TaskList recoveredTasks = new TaskList(storage.recover(), storage.getHistory(), historyDepth);
+            ui.showRecoveredData();
+            return recoveredTasks;
         } catch (DukeException e) {
             ui.showLoadingError();
-            tasks = new TaskList();
+            return new TaskList(List.of(), new TaskHistory(), historyDepth);
         }
     }
 
@@ -43,10 +90,13 @@ public class Duke {
             try {
                 String fullCommand = ui.readCommand();
                 ui.showLine(); // show the divider line ("_______")
-                Command c = Parser.parse(fullCommand);
-                ui.printMessage(c.execute(tasks, ui, storage));
+                Command c = parse(fullCommand);
+                execute(c, ui.getResponseWriter());
+                ui.endResponse();
                 isExit = c.isExit();
             } catch (DukeException e) {
+                metrics.increment(Metrics.ERRORS, 1);
+                ui.discardResponse();
                 ui.showError(e.getMessage());
             } finally {
                 ui.showLine();
@@ -54,10 +104,81 @@ public class Duke {
         }
     }
 
-    /** Runs the program. */
+    /**
+     * Runs the commands in a file, one per line, saving the task list once after the last command.
+     * Only errors are printed for each command, followed by the time taken for the whole batch.
+     *
+     * @param script The file containing the commands.
+     */
+    public void runBatch(Path script) {
+        List<String> commands;
+        try {
+            commands = Files.readAllLines(script);
+        } catch (IOException e) {
+            ui.showError("Unable to read the batch file " + script + ".");
+            return;
+        }
+
+        long startTime = System.nanoTime();
+        int commandCount = 0;
+        int errorCount = 0;
+
+        storage.beginBatch();
+        for (int i = 0; i < commands.size(); i++) {
+            String fullCommand = commands.get(i);
+            if (fullCommand.isBlank()) {
+                continue;
+            }
+
+            commandCount++;
+            try {
+                Command c = parse(fullCommand);
+                execute(c);
+                if (c.isExit()) {
+                    break;
+                }
+            } catch (DukeException e) {
+                errorCount++;
+                metrics.increment(Metrics.ERRORS, 1);
+                ui.showError(String.format("Line %d: %s", i + 1, e.getMessage()));
+            }
+        }
+        storage.endBatch(tasks.getTasks());
+        storage.flush();
+
+        long elapsedMillis = Math.max(1, (System.nanoTime() - startTime) / 1_000_000);
+        ui.printMessage(String.format("Processed %d commands (%d failed) in %d ms, %d commands per second.",
+            commandCount, errorCount, elapsedMillis, commandCount * 1000L / elapsedMillis));
+    }
+
+    /** Writes any changes that are not yet on disk, for when the bot is stopped without the bye command. */
+    public void flush() {
+        storage.flush();
+    }
+
+    /**
+     * Runs the program.
+     * With the arguments --batch [file], runs the commands in the file instead of reading them from the user.
+     * With the arguments --server [port], serves the task lists of many users to local clients, see {@link DukeServer}.
+     */
     public static void main(String[] args) {
+        if (args.length == 2 && args[0].equals("--server")) {
+            try (DukeServer server = new DukeServer(Integer.parseInt(args[1]), "data")) {
+                System.out.println("Serving on localhost port " + server.getPort() + ".");
+                server.serve();
+            } catch (IOException | NumberFormatException e) {
+                System.out.println("Unable to start the server: " + e.getMessage());
+            }
+            return;
+        }
+
         Duke bot = new Duke("data");
-        bot.run();
+
+        if (args.length == 2 && args[0].equals("--batch")) {
+            bot.runBatch(Paths.get(args[1]));
+        } else {
+            bot.run();
+        }
     }
 
     /**
@@ -69,11 +190,102 @@ public class Duke {
     public Message getResponse(String input) {
         assert input != null;
 
+        ResponseEvent event = new ResponseEvent();
+        event.begin();
+
+        Message response;
+        String command = null;
         try {
-            Command c = Parser.parse(input);
-            return new Message(c.execute(tasks, ui, storage));
+            Command c = parse(input);
+            command = getCommandName(c);
+            response = new Message(execute(c));
         } catch (DukeException e) {
-            return new Message(e.getMessage(), true);
+            metrics.increment(Metrics.ERRORS, 1);
+            response = new Message(e.getMessage(), true);
         }
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.command = command;
+            event.inputLength = input.length();
+            event.responseLength = response.getText().length();
+            event.isFailed = response.isError();
+            event.commit();
+        }
+
+        return response;
+    }
+
+    /**
+     * Executes a command, recording the time taken.
+     *
+     * @param c The command.
+     * @return The response of the command.
+     * @throws DukeException If the command fails.
+     */
+    private String execute(Command c) throws DukeException {
+        StringWriter response = new StringWriter();
+        execute(c, new PrintWriter(response));
+        return response.toString();
+    }
+
+    /**
+     * Executes a command, writing the response to the given writer and recording the time taken.
+     * The event of the command is committed if it is being recorded.
+     *
+     * @param c   The command.
+     * @param out The writer the response is written to.
+     * @throws DukeException If the command fails.
+     */
+    private void execute(Command c, PrintWriter out) throws DukeException {
+        CommandEvent event = new CommandEvent();
+        event.begin();
+        long startTime = System.nanoTime();
+        boolean isFailed = true;
+        try {
+            c.execute(tasks, ui, storage, out);
+            isFailed = false;
+        } finally {
+            String command = getCommandName(c);
+            metrics.record("command." + command, System.nanoTime() - startTime);
+
+            event.end();
+            if (event.shouldCommit()) {
+                event.command = command;
+                event.isFailed = isFailed;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Parses the user's input, recording the time taken.
+     *
+     * @param input The user's input.
+     * @return The command.
+     * @throws DukeException If the input is not a valid command.
+     */
+    private Command parse(String input) throws DukeException {
+        long startTime = System.nanoTime();
+        try {
+            return Parser.parse(input, metrics);
+        } finally {
+            metrics.record(Metrics.PARSE, System.nanoTime() - startTime);
+        }
+    }
+
+    /**
+     * Returns the name of the type of a command, such as todo for a ToDoCommand.
+     *
+     * @param c The command.
+     * @return The name of the command.
+     */
+    private static String getCommandName(Command c) {
+        String name = c.getClass().getSimpleName();
+        if (name.endsWith("Command")) {
+            name = name.substring(0, name.length() - "Command".length());
+        }
+
+        return name.toLowerCase();
     }
 }
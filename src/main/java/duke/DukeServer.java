@@ -0,0 +1,270 @@
+package duke;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+import duke.gui.Message;
+
+/**
+ * Serves the task lists of many users to clients connecting to a local socket.
+ * Every user has their own Duke bot, saved in a directory named after the user, and each connection
+ * is handled on its own thread: a virtual thread where the Java runtime supports them, or otherwise
+ * a thread from a cached pool. Commands from clients of the same user are run one at a time, under a lock
+ * rather than a monitor so that a virtual thread waiting on the user's file I/O does not pin its carrier thread.
+ *
+ * <p>The protocol is line based, in UTF-8. The first line a client sends is its user name, and every
+ * following line is a command, as typed in the console. The server answers the user name and every
+ * command with the lines of its response followed by a line containing only a dot; a response line
+ * that starts with a dot is sent with an extra dot in front. The connection is closed after bye.
+ */
+public class DukeServer implements Closeable {
+
+    /**
+     * The user names that are accepted. They are not case-sensitive, and are used in lower case as directory names
+     * so that the same user has one directory on case-sensitive and case-insensitive file systems alike.
+     */
+    private static final Pattern USER_NAME = Pattern.compile("[A-Za-z0-9_-]{1,32}");
+
+    /** The line that ends each response. */
+    private static final String END_OF_RESPONSE = ".";
+
+    /** The number of connections waiting to be accepted before new ones are refused. */
+    private static final int BACKLOG = 1024;
+
+    /** The socket the clients connect to, on the loopback address only. */
+    private final ServerSocket serverSocket;
+
+    /** The directory the task lists of the users are saved in. */
+    private final String dataDirectory;
+
+    /** The executor running one task per connection. */
+    private final ExecutorService connections = newConnectionExecutor();
+
+    /** The bot of each user who has connected. */
+    private final ConcurrentHashMap<String, UserBot> bots = new ConcurrentHashMap<>();
+
+    /** The open connections, closed when the server is closed as reading from them cannot be interrupted. */
+    private final Set<Socket> openSockets = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructs a DukeServer listening on the given port of the loopback address.
+     *
+     * @param port          The port, or 0 for any free port.
+     * @param dataDirectory The directory the task lists of the users are saved in.
+     * @throws IOException If the data directory cannot be created or the port cannot be listened on.
+     */
+    public DukeServer(int port, String dataDirectory) throws IOException {
+        Files.createDirectories(Paths.get(dataDirectory));
+        this.serverSocket = new ServerSocket(port, BACKLOG, InetAddress.getLoopbackAddress());
+        this.dataDirectory = dataDirectory;
+    }
+
+    /**
+     * Returns the port the server listens on.
+     *
+     * @return The port.
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /** Accepts connections until the server is closed, handling each one on its own thread. */
+    public void serve() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.execute(() -> handle(socket));
+            } catch (SocketException e) {
+                // The server socket was closed
+                break;
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /** Accepts connections in the background until the server is closed. */
+    public void start() {
+        Thread acceptor = new Thread(this::serve, "duke-server");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /**
+     * Stops accepting connections, closes the open connections and writes the changes of every user to disk.
+     *
+     * @throws IOException If the server socket cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        for (Socket socket : openSockets) {
+            socket.close();
+        }
+        connections.shutdownNow();
+        try {
+            connections.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        bots.forEach((user, userBot) -> {
+            userBot.lock.lock();
+            try {
+                if (userBot.bot != null) {
+                    userBot.bot.flush();
+                }
+            } finally {
+                userBot.lock.unlock();
+            }
+        });
+    }
+
+    /**
+     * Serves a client until it says bye or disconnects.
+     *
+     * @param socket The connection to the client.
+     */
+    private void handle(Socket socket) {
+        openSockets.add(socket);
+        try (socket;
+             BufferedReader in = new BufferedReader(
+                 new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             Writer out = new BufferedWriter(
+                 new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+
+            String user = in.readLine();
+            if (user == null) {
+                return;
+            } else if (!USER_NAME.matcher(user).matches()) {
+                writeResponse(out, "Invalid user name. Use up to 32 letters, digits, - or _.");
+                return;
+            }
+
+            UserBot userBot = bots.computeIfAbsent(user.toLowerCase(Locale.ROOT),
+                name -> new UserBot(Paths.get(dataDirectory, name).toString()));
+            userBot.lock.lock();
+            try {
+                userBot.getBot();
+            } finally {
+                userBot.lock.unlock();
+            }
+            writeResponse(out, "Hello, " + user + "! How may I help you?");
+
+            for (String command = in.readLine(); command != null; command = in.readLine()) {
+                Message response;
+                userBot.lock.lock();
+                try {
+                    response = userBot.getBot().getResponse(command);
+                } finally {
+                    userBot.lock.unlock();
+                }
+                writeResponse(out, response.getText());
+
+                if (!response.isError() && Parser.getFirstWord(command.trim()).equals("bye")) {
+                    break;
+                }
+            }
+
+        } catch (IOException e) {
+            // The client disconnected
+        } finally {
+            openSockets.remove(socket);
+        }
+    }
+
+    /**
+     * Writes a response to a client, followed by the line ending it.
+     *
+     * @param out      The writer to the client.
+     * @param response The response.
+     * @throws IOException If the client has disconnected.
+     */
+    private static void writeResponse(Writer out, String response) throws IOException {
+        for (String line : response.split("\n", -1)) {
+            if (line.startsWith(END_OF_RESPONSE)) {
+                out.write(END_OF_RESPONSE);
+            }
+            out.write(line);
+            out.write('\n');
+        }
+
+        out.write(END_OF_RESPONSE);
+        out.write('\n');
+        out.flush();
+    }
+
+    /**
+     * Creates the executor for the connections, running each on a new virtual thread if the Java runtime
+     * supports them (Java 21 and later), or otherwise on a thread from a cached pool.
+     *
+     * @return The executor.
+     */
+    private static ExecutorService newConnectionExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger threadCount = new AtomicInteger();
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "duke-client-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * The bot of a user, with the lock that its commands are run under.
+     * The bot is created under the lock on first use rather than by the map, so loading the user's tasks
+     * does not hold up the map or the other users while a user's first clients wait for the lock.
+     */
+    private static class UserBot {
+
+        /** The lock held while the bot is created, runs a command or saves. */
+        final ReentrantLock lock = new ReentrantLock();
+
+        /** The directory the user's task list is saved in. */
+        private final String directory;
+
+        /** The bot, or null until it is first used. Guarded by the lock. */
+        private Duke bot;
+
+        UserBot(String directory) {
+            this.directory = directory;
+        }
+
+        /**
+         * Returns the bot, loading the user's task list the first time. The lock must be held.
+         *
+         * @return The bot.
+         */
+        Duke getBot() {
+            if (bot == null) {
+                bot = new Duke(directory);
+            }
+
+            return bot;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package duke;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** A Java Flight Recorder event covering the append of a change to the journal. */
+@Name("duke.JournalAppend")
+@Label("Journal Append")
+@Category({"Duke", "Storage"})
+@Description("A change being appended to the journal, which is forced to disk every few records")
+final class JournalEvent extends Event {
+
+    @Label("Bytes Written")
+    @DataAmount
+    long bytesWritten;
+
+    @Label("Forced")
+    @Description("Whether the journal was forced to disk after the record")
+    boolean isForced;
+}
@@ -0,0 +1,125 @@
+package duke;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.TreeMap;
+
+import duke.task.Task;
+
+/**
+ * An immutable inverted index from the words in task descriptions to the positions of the tasks containing them.
+ * Adding a task creates a new version of the index, which shares most of its entries with the old one.
+ */
+final class KeywordIndex {
+
+    /** The index of no tasks. */
+    static final KeywordIndex EMPTY = new KeywordIndex(PersistentSortedMap.empty());
+
+    /** The positions of the tasks containing each word, sorted by word. */
+    private final PersistentSortedMap<String, TaskPositions> postings;
+
+    private KeywordIndex(PersistentSortedMap<String, TaskPositions> postings) {
+        this.postings = postings;
+    }
+
+    /**
+     * Creates the index of a list of tasks.
+     *
+     * @param tasks The tasks.
+     * @return The index.
+     */
+    static KeywordIndex of(List<Task> tasks) {
+        TreeMap<String, TaskPositions> postings = new TreeMap<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            int position = i;
+            for (String word : getWords(tasks.get(i))) {
+                postings.compute(word, (w, positions) -> TaskPositions.push(positions, position));
+            }
+        }
+
+        return new KeywordIndex(PersistentSortedMap.of(postings));
+    }
+
+    /**
+     * Splits a task description into lowercase words.
+     *
+     * @param description The task description.
+     * @return The words in the description.
+     */
+    static ArrayList<String> tokenize(String description) {
+        ArrayList<String> words = new ArrayList<>();
+
+        int start = -1;
+        for (int i = 0; i <= description.length(); i++) {
+            boolean isWordChar = i < description.length() && Character.isLetterOrDigit(description.charAt(i));
+
+            if (isWordChar && start < 0) {
+                start = i;
+            } else if (!isWordChar && start >= 0) {
+                words.add(description.substring(start, i).toLowerCase());
+                start = -1;
+            }
+        }
+
+        return words;
+    }
+
+    /**
+     * Returns the index with a task added after all the indexed tasks.
+     *
+     * @param position The position of the task, which is the number of indexed tasks.
+     * @param task     The task.
+     * @return The new index.
+     */
+    KeywordIndex add(int position, Task task) {
+        PersistentSortedMap<String, TaskPositions> newPostings = postings;
+        for (String word : getWords(task)) {
+            newPostings = newPostings.put(word, TaskPositions.push(newPostings.get(word), position));
+        }
+
+        return new KeywordIndex(newPostings);
+    }
+
+    /**
+     * Returns the index without the last task added to it.
+     *
+     * @param position The position of the task.
+     * @param task     The task.
+     * @return The new index.
+     */
+    KeywordIndex removeLast(int position, Task task) {
+        PersistentSortedMap<String, TaskPositions> newPostings = postings;
+        for (String word : getWords(task)) {
+            newPostings = newPostings.put(word, TaskPositions.pop(newPostings.get(word), position));
+        }
+
+        return new KeywordIndex(newPostings);
+    }
+
+    /**
+     * Collects the positions of the tasks containing the given word.
+     *
+     * @param word  The lowercase word to look up.
+     * @param found The set to add the positions of matching tasks to.
+     */
+    void findWord(String word, BitSet found) {
+        TaskPositions.addTo(postings.get(word), found);
+    }
+
+    /**
+     * Collects the positions of the tasks containing a word that starts with the given prefix.
+     *
+     * @param prefix The lowercase prefix to look up.
+     * @param found  The set to add the positions of matching tasks to.
+     */
+    void findPrefix(String prefix, BitSet found) {
+        postings.forEachValue(prefix, true, prefix + Character.MAX_VALUE, false,
+            positions -> TaskPositions.addTo(positions, found));
+    }
+
+    private static LinkedHashSet<String> getWords(Task task) {
+        return new LinkedHashSet<>(tokenize(task.getTask()));
+    }
+}
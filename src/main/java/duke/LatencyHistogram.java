@@ -0,0 +1,128 @@
+package duke;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of durations in nanoseconds with log-linear buckets, in the manner of an HDR histogram:
+ * each power of two is split into 16 buckets of equal width, so a percentile read from the histogram
+ * is within 1/16 of the recorded value, whether the value is a microsecond or a minute.
+ * Recording a value takes a few atomic increments, so it can be done from many threads without locking.
+ */
+final class LatencyHistogram {
+
+    /** The number of bits of a value, after its highest bit, that select its bucket within a power of two. */
+    private static final int SUB_BUCKET_BITS = 4;
+
+    /** The number of buckets per power of two. */
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /** The highest power of two tracked (2^40 ns is about 18 minutes); longer durations count as the longest. */
+    private static final int MAX_EXPONENT = 40;
+
+    /** The number of values recorded in each bucket. */
+    private final AtomicLongArray counts = new AtomicLongArray((MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS);
+
+    /** The number of values recorded. */
+    private final AtomicLong count = new AtomicLong();
+
+    /** The sum of the values recorded. */
+    private final AtomicLong sum = new AtomicLong();
+
+    /** The largest value recorded. */
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a duration.
+     *
+     * @param nanos The duration in nanoseconds.
+     */
+    void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        counts.incrementAndGet(getBucket(value));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    long getCount() {
+        return count.get();
+    }
+
+    long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Returns the mean of the values recorded.
+     *
+     * @return The mean in nanoseconds, or 0 if nothing has been recorded.
+     */
+    double getMean() {
+        long recorded = count.get();
+        return recorded == 0 ? 0 : (double) sum.get() / recorded;
+    }
+
+    /**
+     * Returns the value below which the given fraction of the values recorded fall,
+     * as the highest value of the bucket that value is in, or the largest value recorded if that is lower.
+     *
+     * @param fraction The fraction, from 0 to 1.
+     * @return The percentile in nanoseconds, or 0 if nothing has been recorded.
+     */
+    long getPercentile(double fraction) {
+        long recorded = count.get();
+        if (recorded == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(fraction * recorded));
+        long seen = 0;
+        for (int bucket = 0; bucket < counts.length(); bucket++) {
+            seen += counts.get(bucket);
+            if (seen >= rank) {
+                // The last bucket also counts every longer duration, so it has no highest value
+                return bucket < counts.length() - 1
+                    ? Math.min(getLowestValue(bucket + 1) - 1, max.get())
+                    : max.get();
+            }
+        }
+
+        return max.get();
+    }
+
+    /**
+     * Returns the bucket a value is counted in. Values below 16 each have their own bucket;
+     * larger values share a bucket with the values that have the same highest five bits.
+     *
+     * @param value The value, which is not negative.
+     * @return The index of the bucket.
+     */
+    private static int getBucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+
+        int exponent = Math.min(63 - Long.numberOfLeadingZeros(value), MAX_EXPONENT);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = exponent == MAX_EXPONENT && value >>> MAX_EXPONENT != 0
+            ? SUB_BUCKETS - 1
+            : (int) (value >>> shift) & (SUB_BUCKETS - 1);
+        return (shift + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Returns the lowest value counted in a bucket.
+     *
+     * @param bucket The index of the bucket.
+     * @return The value.
+     */
+    private static long getLowestValue(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+
+        int shift = bucket / SUB_BUCKETS - 1;
+        return (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+    }
+}
@@ -0,0 +1,29 @@
+package duke;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** A Java Flight Recorder event covering the loading of the task list, including replaying the journal. */
+@Name("duke.Load")
+@Label("Load")
+@Category({"Duke", "Storage"})
+@Description("The task list being loaded from the saved file, or recovered from an earlier generation of it")
+final class LoadEvent extends Event {
+
+    @Label("Saved File")
+    String path;
+
+    @Label("Lazy")
+    @Description("Whether the file was mapped, for its tasks to be decoded when they are first read")
+    boolean isLazy;
+
+    @Label("Tasks")
+    int taskCount;
+
+    @Label("Lines Decoded")
+    @Description("The tasks decoded from their lines or binary records while loading")
+    int decodedCount;
+}
@@ -0,0 +1,206 @@
+package duke;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+import duke.task.Task;
+
+/**
+ * An unmodifiable task list backed by a memory-mapped save file.
+ * Only the positions of the task records are found when the list is created; each task is
+ * decoded the first time it is accessed.
+ *
+ * <p>The list can be read from many threads: decoding is synchronized,
+ * and after every task has been decoded the tasks are read without locking.
+ */
+class MappedTaskList extends AbstractList<Task> implements RandomAccess {
+
+    /** The mapped save file, or null once every task has been decoded. */
+    private ByteBuffer buffer;
+
+    /** Whether the save file is in the binary format instead of text. */
+    private final boolean isBinary;
+
+    /** The position of each record in the buffer, followed by the end of the last record. */
+    private final int[] offsets;
+
+    /** The tasks decoded so far, by index, or null once every task has been decoded. */
+    private Task[] decodedTasks;
+
+    /** The indexes of the tasks that have been decoded. */
+    private final BitSet isDecoded = new BitSet();
+
+    /** All the tasks, once every task has been decoded. */
+    private volatile ArrayList<Task> allTasks;
+
+    private MappedTaskList(ByteBuffer buffer, boolean isBinary, int[] offsets, int size) {
+        this.buffer = buffer;
+        this.isBinary = isBinary;
+        this.offsets = offsets;
+        this.decodedTasks = new Task[size];
+    }
+
+    /**
+     * Creates a list over a save file in the text format, one task per line.
+     *
+     * @param buffer The mapped save file.
+     * @return The list of tasks in the file.
+     */
+    static MappedTaskList ofText(ByteBuffer buffer) {
+        int[] offsets = new int[16];
+        int size = 0;
+
+        int lineStart = 0;
+        int limit = buffer.limit();
+        for (int i = 0; i <= limit; i++) {
+            if (i < limit && buffer.get(i) != '\n') {
+                continue;
+            }
+
+            if (i > lineStart) {
+                if (size + 2 > offsets.length) {
+                    offsets = Arrays.copyOf(offsets, offsets.length * 2);
+                }
+                offsets[size++] = lineStart;
+                offsets[size] = i;
+            }
+            lineStart = i + 1;
+        }
+
+        return new MappedTaskList(buffer, false, offsets, size);
+    }
+
+    /**
+     * Creates a list over a save file in the binary format.
+     *
+     * @param buffer The mapped save file.
+     * @return The list of tasks in the file, or null if the file is not a valid binary save file.
+     */
+    static MappedTaskList ofBinary(ByteBuffer buffer) {
+        ByteBuffer records = buffer.duplicate();
+        int taskCount = BinaryTaskFormat.readHeader(records);
+        if (taskCount < 0) {
+            return null;
+        }
+
+        int[] offsets = new int[Math.min(taskCount, records.remaining()) + 1];
+        for (int i = 0; i < taskCount; i++) {
+            offsets[i] = records.position();
+            if (!BinaryTaskFormat.skip(records)) {
+                return null;
+            }
+        }
+        offsets[taskCount] = records.position();
+
+        return new MappedTaskList(buffer, true, offsets, taskCount);
+    }
+
+    @Override
+    public Task get(int index) {
+        ArrayList<Task> tasks = allTasks;
+        return tasks != null
+            ? tasks.get(index)
+            : getMapped(index);
+    }
+
+    /**
+     * Obtains the task at the given index, decoding it if it has not been decoded yet.
+     *
+     * @param index The index of the task.
+     * @return The task.
+     */
+    private synchronized Task getMapped(int index) {
+        if (allTasks != null) {
+            return allTasks.get(index);
+        }
+
+        Objects.checkIndex(index, decodedTasks.length);
+        if (!isDecoded.get(index)) {
+            decodedTasks[index] = decode(index);
+            isDecoded.set(index);
+        }
+
+        return decodedTasks[index];
+    }
+
+    @Override
+    public synchronized int size() {
+        return allTasks != null
+            ? allTasks.size()
+            : decodedTasks.length;
+    }
+
+    /**
+     * Returns whether the task at the given index is done.
+     * The done flag of a task that has not been decoded is read from its record without decoding it.
+     *
+     * @param index The index of the task.
+     * @return True if the task is done.
+     */
+    synchronized boolean isDone(int index) {
+        Objects.checkIndex(index, size());
+        if (allTasks != null || isDecoded.get(index)) {
+            return get(index).isDone();
+        }
+
+        // The done flag follows the type tag in both formats
+        byte flag = buffer.get(offsets[index] + 1);
+        return isBinary ? flag != 0 : flag == '1';
+    }
+
+    /**
+     * Returns the number of tasks that have been decoded so far.
+     *
+     * @return The number of tasks.
+     */
+    synchronized int getDecodedCount() {
+        return allTasks != null
+            ? allTasks.size()
+            : isDecoded.cardinality();
+    }
+
+    /**
+     * Decodes every task that has not been decoded yet and releases the mapped file.
+     * This must be done before the save file is overwritten.
+     */
+    synchronized void decodeAll() {
+        if (allTasks != null) {
+            return;
+        }
+
+        ArrayList<Task> tasks = new ArrayList<>(size());
+        for (int i = 0; i < size(); i++) {
+            tasks.add(get(i));
+        }
+
+        allTasks = tasks;
+        decodedTasks = null;
+        isDecoded.clear();
+        buffer = null;
+    }
+
+    /**
+     * Decodes the task record at the given index.
+     *
+     * @param index The index of the task.
+     * @return The task.
+     */
+    private Task decode(int index) {
+        ByteBuffer record = buffer.duplicate();
+        record.position(offsets[index]);
+
+        if (isBinary) {
+            return BinaryTaskFormat.read(record);
+        }
+
+        byte[] line = new byte[offsets[index + 1] - offsets[index]];
+        record.get(line);
+        return Storage.readTask(new String(line, StandardCharsets.UTF_8).stripTrailing());
+    }
+}
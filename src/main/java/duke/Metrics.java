@@ -0,0 +1,151 @@
+package duke;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Times the operations of a bot, such as parsing, each type of command and each kind of storage access,
+ * and counts other totals such as the bytes saved, for the stats command.
+ * Each operation has a {@link LatencyHistogram} of how long it took, from which its count, throughput
+ * and percentiles are read. Recording is cheap enough to be always on and can be done from many threads.
+ */
+public class Metrics {
+
+    /** The operation of parsing a command. */
+    public static final String PARSE = "parse";
+
+    /** The operation of writing the saved file. */
+    public static final String SAVE = "storage.save";
+
+    /** The operation of loading the saved file. */
+    public static final String LOAD = "storage.load";
+
+    /** The operation of appending a record to the journal. */
+    public static final String JOURNAL = "storage.journal";
+
+    /** The counter of commands that failed. */
+    public static final String ERRORS = "command.errors";
+
+    /** The counter of bytes written to the saved file. */
+    public static final String SAVED_BYTES = "storage.save.bytes";
+
+    /** The thread writing the stats of every bot to their files, or null if no stats are written. */
+    private static ScheduledExecutorService dumpScheduler;
+
+    /** The time the metrics started, in {@link System#nanoTime()}. */
+    private final long startNanos = System.nanoTime();
+
+    /** The histogram of each operation, by name. */
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentSkipListMap<>();
+
+    /** The counters, by name. */
+    private final Map<String, LongAdder> counters = new ConcurrentSkipListMap<>();
+
+    /**
+     * Records how long an operation took.
+     *
+     * @param operation The name of the operation.
+     * @param nanos     The time taken in nanoseconds.
+     */
+    public void record(String operation, long nanos) {
+        histograms.computeIfAbsent(operation, name -> new LatencyHistogram()).record(nanos);
+    }
+
+    /**
+     * Adds to a counter.
+     *
+     * @param counter The name of the counter.
+     * @param amount  The amount added.
+     */
+    public void increment(String counter, long amount) {
+        counters.computeIfAbsent(counter, name -> new LongAdder()).add(amount);
+    }
+
+    /**
+     * Obtains the number of times an operation was recorded.
+     *
+     * @param operation The name of the operation.
+     * @return The count, or 0 if it was never recorded.
+     */
+    public long getCount(String operation) {
+        LatencyHistogram histogram = histograms.get(operation);
+        return histogram == null ? 0 : histogram.getCount();
+    }
+
+    /**
+     * Summarizes the metrics: a table of the operations with their count, rate and percentiles in milliseconds,
+     * followed by the counters.
+     *
+     * @return The summary.
+     */
+    public String summarize() {
+        double uptimeSeconds = Math.max(System.nanoTime() - startNanos, 1) / 1e9;
+        if (histograms.isEmpty()) {
+            return String.format("Nothing has been recorded in the last %.1f s.", uptimeSeconds);
+        }
+
+        StringBuilder str = new StringBuilder();
+        str.append(String.format("Stats for the last %.1f s (times in ms):\n", uptimeSeconds));
+        str.append(String.format("%-20s %8s %8s %9s %9s %9s %9s %9s\n",
+            "Operation", "Count", "Per s", "Mean", "p50", "p90", "p99", "Max"));
+        histograms.forEach((operation, histogram) -> str.append(
+            String.format("%-20s %8d %8.2f %9.3f %9.3f %9.3f %9.3f %9.3f\n",
+                operation, histogram.getCount(), histogram.getCount() / uptimeSeconds,
+                histogram.getMean() / 1e6, histogram.getPercentile(0.5) / 1e6, histogram.getPercentile(0.9) / 1e6,
+                histogram.getPercentile(0.99) / 1e6, histogram.getMax() / 1e6)));
+
+        counters.forEach((counter, total) -> str.append(String.format("%s: %d\n", counter, total.sum())));
+        return str.toString().trim();
+    }
+
+    /**
+     * Writes the summary to a file, replacing it once the new summary has been completely written.
+     *
+     * @param file The file.
+     * @throws IOException If the file cannot be written.
+     */
+    public void writeTo(Path file) throws IOException {
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.write(tempFile, (summarize() + "\n").getBytes(StandardCharsets.UTF_8));
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Writes the summary to a file every interval, in the background, until the program ends.
+     * The summaries of every bot are written by a single thread.
+     *
+     * @param file     The file.
+     * @param interval The time between summaries.
+     */
+    public void startDump(Path file, Duration interval) {
+        ScheduledExecutorService scheduler;
+        synchronized (Metrics.class) {
+            if (dumpScheduler == null) {
+                dumpScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "duke-stats");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+            scheduler = dumpScheduler;
+        }
+
+        scheduler.scheduleAtFixedRate(() -> {
+            try {
+                writeTo(file);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+}
@@ -3,19 +3,23 @@ package duke;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
-import java.time.format.DateTimeParseException;
-import java.util.stream.Stream;
+import java.util.Arrays;
 
 import duke.command.Command;
 import duke.command.DeadlineCommand;
 import duke.command.DeleteCommand;
+import duke.command.DeleteMatchingCommand;
 import duke.command.DoneCommand;
+import duke.command.DoneRangeCommand;
 import duke.command.EventCommand;
 import duke.command.ExitCommand;
 import duke.command.FindCommand;
 import duke.command.HelpCommand;
 import duke.command.ListCommand;
+import duke.command.RedoCommand;
+import duke.command.StatsCommand;
 import duke.command.ToDoCommand;
+import duke.command.UndoCommand;
 import duke.exception.EmptyTaskException;
 import duke.exception.InvalidDateException;
 import duke.exception.NoIndexException;
@@ -25,75 +29,178 @@ import duke.exception.UnrecognizedTaskException;
 /** Deals with making sense of user inputs. */
 public class Parser {
 
+    /** The time of a deadline or event given only a date. */
+    private static final LocalTime END_OF_DAY = LocalTime.of(23, 59);
+
+    /** The metrics summarized by stats commands parsed without the metrics of a bot, which stay empty. */
+    private static final Metrics NO_METRICS = new Metrics();
+
+    /**
+     * Makes sense of user inputs, for a bot without metrics.
+     *
+     * @param fullCommand The user input.
+     * @return A Command for the bot to do.
+     * @throws UnrecognizedTaskException If the first word is not a recognized command.
+     * @throws NoIndexException          If the command is delete or done and the index is < 0
+     *                                   or larger than the size of the task list.
+     * @throws EmptyTaskException        If the command is an add task command such as todo,
+     *                                   event, or deadline and is followed by no description.
+     * @throws InvalidDateException      If the command is delete before and the date is not valid.
+     */
+    public static Command parse(CharSequence fullCommand) throws UnrecognizedTaskException, NoIndexException,
+        EmptyTaskException, NoKeywordException, InvalidDateException {
+        return parse(fullCommand, NO_METRICS);
+    }
+
     /**
      * Makes sense of user inputs.
+     * The input is scanned once, by position, so that no intermediate strings are created
+     * apart from the task description or keywords kept by the command.
      *
      * @param fullCommand The user input.
+     * @param metrics     The metrics of the bot, summarized by the stats command.
      * @return A Command for the bot to do.
      * @throws UnrecognizedTaskException If the first word is not a recognized command.
      * @throws NoIndexException          If the command is delete or done and the index is < 0
      *                                   or larger than the size of the task list.
      * @throws EmptyTaskException        If the command is an add task command such as todo,
      *                                   event, or deadline and is followed by no description.
+     * @throws InvalidDateException      If the command is delete before and the date is not valid.
      */
-    public static Command parse(String fullCommand)
-        throws UnrecognizedTaskException, NoIndexException, EmptyTaskException, NoKeywordException {
+    public static Command parse(CharSequence fullCommand, Metrics metrics) throws UnrecognizedTaskException,
+        NoIndexException, EmptyTaskException, NoKeywordException, InvalidDateException {
 
         assert fullCommand != null;
 
-        // Removes unnecessary whitespace
-        fullCommand = fullCommand.trim();
+        // Skips unnecessary whitespace
+        int end = fullCommand.length();
+        while (end > 0 && Character.isWhitespace(fullCommand.charAt(end - 1))) {
+            end--;
+        }
+        int start = skipWhitespace(fullCommand, 0, end);
 
         // Determines the case for each command
-        String firstWord = getFirstWord(fullCommand);
-        switch (firstWord) {
-        case "help":
+        int firstWordEnd = skipWord(fullCommand, start, end);
+        int argumentStart = skipWhitespace(fullCommand, firstWordEnd, end);
+
+        if (isWord(fullCommand, start, firstWordEnd, "help")) {
             return new HelpCommand();
-            // Fallthrough
-        case "todo":
-            return new ToDoCommand(getTask(fullCommand, firstWord));
-            // Fallthrough
-        case "event":
-            return new EventCommand(getTask(fullCommand, firstWord));
-            // Fallthrough
-        case "deadline":
-            return new DeadlineCommand(getTask(fullCommand, firstWord));
-            // Fallthrough
-        case "list":
-            return new ListCommand(fullCommand);
-            // Fallthrough
-        case "find":
-            return new FindCommand(getKeywords(fullCommand));
-            // Fallthrough
-        case "done":
-            return new DoneCommand(getTaskNumbers(fullCommand, firstWord));
-            // Fallthrough
-        case "delete":
-            return new DeleteCommand(getTaskNumbers(fullCommand, firstWord));
-            // Fallthrough
-        case "bye":
+        } else if (isWord(fullCommand, start, firstWordEnd, "todo")) {
+            return new ToDoCommand(getTask(fullCommand, argumentStart, end));
+        } else if (isWord(fullCommand, start, firstWordEnd, "event")) {
+            return new EventCommand(getTask(fullCommand, argumentStart, end));
+        } else if (isWord(fullCommand, start, firstWordEnd, "deadline")) {
+            return new DeadlineCommand(getTask(fullCommand, argumentStart, end));
+        } else if (isWord(fullCommand, start, firstWordEnd, "list")) {
+            return new ListCommand(fullCommand.subSequence(start, end).toString());
+        } else if (isWord(fullCommand, start, firstWordEnd, "find")) {
+            int optionEnd = skipWord(fullCommand, argumentStart, end);
+            TaskList.SearchMode mode = getSearchMode(fullCommand, argumentStart, optionEnd);
+            return mode == null
+                ? new FindCommand(TaskList.SearchMode.PREFIX, getKeywords(fullCommand, argumentStart, end))
+                : new FindCommand(mode, getKeywords(fullCommand, optionEnd, end));
+        } else if (isWord(fullCommand, start, firstWordEnd, "done")) {
+            int optionEnd = skipWord(fullCommand, argumentStart, end);
+            if (isWord(fullCommand, argumentStart, optionEnd, "all") && optionEnd == end) {
+                return new DoneRangeCommand();
+            } else if (isWord(fullCommand, argumentStart, optionEnd, "range")) {
+                return getDoneRange(fullCommand, skipWhitespace(fullCommand, optionEnd, end), end);
+            }
+            int[][] ranges = getTaskRanges(fullCommand, argumentStart, end, "done");
+            return new DoneCommand(ranges[0], ranges[1]);
+        } else if (isWord(fullCommand, start, firstWordEnd, "delete")) {
+            int optionEnd = skipWord(fullCommand, argumentStart, end);
+            if (isWord(fullCommand, argumentStart, optionEnd, "done") && optionEnd == end) {
+                return new DeleteMatchingCommand();
+            } else if (isWord(fullCommand, argumentStart, optionEnd, "before")) {
+                String date = fullCommand.subSequence(optionEnd, end).toString();
+                return new DeleteMatchingCommand(getDateTime(date).toLocalDate());
+            }
+            int[][] ranges = getTaskRanges(fullCommand, argumentStart, end, "delete");
+            return new DeleteCommand(ranges[0], ranges[1]);
+        } else if (isWord(fullCommand, start, firstWordEnd, "undo")) {
+            return new UndoCommand();
+        } else if (isWord(fullCommand, start, firstWordEnd, "redo")) {
+            return new RedoCommand();
+        } else if (isWord(fullCommand, start, firstWordEnd, "stats")) {
+            return new StatsCommand(metrics);
+        } else if (isWord(fullCommand, start, firstWordEnd, "bye")) {
             return new ExitCommand();
-            // Fallthrough
-        default:
+        } else {
             throw new UnrecognizedTaskException();
-            // Fallthrough
         }
     }
 
+    /**
+     * Returns the position of the first character from the given position that is not whitespace.
+     *
+     * @param input The user input.
+     * @param from  The position to start from.
+     * @param end   The end of the input.
+     * @return The position of the character, or the end if there is none.
+     */
+    private static int skipWhitespace(CharSequence input, int from, int end) {
+        while (from < end && Character.isWhitespace(input.charAt(from))) {
+            from++;
+        }
+
+        return from;
+    }
+
+    /**
+     * Returns the position of the first whitespace character from the given position.
+     *
+     * @param input The user input.
+     * @param from  The position to start from.
+     * @param end   The end of the input.
+     * @return The position of the character, or the end if there is none.
+     */
+    private static int skipWord(CharSequence input, int from, int end) {
+        while (from < end && !Character.isWhitespace(input.charAt(from))) {
+            from++;
+        }
+
+        return from;
+    }
+
+    /**
+     * Checks if part of the input is the given word, ignoring case.
+     *
+     * @param input The user input.
+     * @param start The start of the part.
+     * @param end   The end of the part.
+     * @param word  The word in lower case.
+     * @return True if the part is the word.
+     */
+    private static boolean isWord(CharSequence input, int start, int end, String word) {
+        if (end - start != word.length()) {
+            return false;
+        }
+
+        for (int i = 0; i < word.length(); i++) {
+            if (Character.toLowerCase(input.charAt(start + i)) != word.charAt(i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
     /**
      * Returns the description of a task.
      *
-     * @param fullCommand   The input given by the user.
-     * @param firstWord     The command.
+     * @param fullCommand The input given by the user.
+     * @param start       The start of the description.
+     * @param end         The end of the input, after any trailing whitespace is removed.
      * @return The task description.
-     * @throws EmptyTaskException If the input is an empty string, or contains only whitespaces.
+     * @throws EmptyTaskException If there is no description.
      */
-    private static String getTask(String fullCommand, String firstWord) throws EmptyTaskException {
-        try {
-            return fullCommand.substring((firstWord + " ").length()).trim();
-        } catch (StringIndexOutOfBoundsException e) {
+    private static String getTask(CharSequence fullCommand, int start, int end) throws EmptyTaskException {
+        if (start == end) {
             throw new EmptyTaskException();
         }
+
+        return fullCommand.subSequence(start, end).toString();
     }
 
     /**
@@ -107,50 +214,110 @@ public class Parser {
 
         assert dateTimeString != null;
 
-        // Remove unnecessary whitespace
-        dateTimeString = dateTimeString.trim();
-
-        // Determine the dateTime format
-        String isoFormat = "yyyy-mm-ddThh:mm:ss";
-        String isoFormatShort = "yyyy-mm-ddThh:mm";
-        boolean isIsoFormat = dateTimeString.length() == isoFormat.length()
-            || dateTimeString.length() == isoFormatShort.length();
+        // Skips unnecessary whitespace
+        int end = dateTimeString.length();
+        while (end > 0 && Character.isWhitespace(dateTimeString.charAt(end - 1))) {
+            end--;
+        }
+        int start = skipWhitespace(dateTimeString, 0, end);
 
-        try {
+        // Determines the dateTime format: a date time, a date (at 23:59) or a time (today)
+        LocalDateTime dateTime = DateTimeDecoder.decodeDateTime(dateTimeString, start, end);
+        if (dateTime != null) {
+            return dateTime;
+        }
 
-            if (isIsoFormat) {
-                return LocalDateTime.parse(dateTimeString);
-            } else if (dateTimeString.contains("-")) {
-                return LocalDateTime.of(LocalDate.parse(dateTimeString), LocalTime.parse("23:59"));
-            } else if (dateTimeString.contains(":")) {
-                return LocalDateTime.of(LocalDate.now(), LocalTime.parse(dateTimeString));
-            } else {
-                throw new InvalidDateException();
-            }
+        LocalDate date = DateTimeDecoder.decodeDate(dateTimeString, start, end);
+        if (date != null) {
+            return LocalDateTime.of(date, END_OF_DAY);
+        }
 
-        } catch (DateTimeParseException e) {
-            throw new InvalidDateException();
+        LocalTime time = DateTimeDecoder.decodeTime(dateTimeString, start, end);
+        if (time != null) {
+            return LocalDateTime.of(LocalDate.now(), time);
         }
+
+        throw new InvalidDateException();
     }
 
     /**
-     * Parses the taskNumbers given.
+     * Parses the task numbers given (separated by whitespace), where FIRST-LAST stands for a range of numbers.
+     * A single number N is the range N-N. The ranges are not expanded here, as they are only checked against
+     * the size of the task list when the command is executed.
      *
-     * @param fullCommand   The full command given by the user.
-     * @param firstWord     The first word (command) given by the user.
-     * @return The array of task numbers.
+     * @param fullCommand The full command given by the user.
+     * @param start       The start of the task numbers.
+     * @param end         The end of the input, after any trailing whitespace is removed.
+     * @param command     The command, to be shown in the error message.
+     * @return The first and the last task numbers of the ranges, in two arrays of the same length.
      * @throws NoIndexException If there are no integers following the command.
      */
-    public static Integer[] getTaskNumbers(String fullCommand, String firstWord) throws NoIndexException {
-        if (fullCommand.equalsIgnoreCase(firstWord)) {
-            throw new NoIndexException(firstWord);
+    private static int[][] getTaskRanges(CharSequence fullCommand, int start, int end, String command)
+        throws NoIndexException {
+
+        if (start == end) {
+            throw new NoIndexException(command);
         }
 
+        int[] firsts = new int[4];
+        int[] lasts = new int[4];
+        int count = 0;
+
         try {
-            String[] taskNumbers = fullCommand.substring(firstWord.length()).trim().split(" ");
-            return Stream.of(taskNumbers).map(Integer::valueOf).toArray(Integer[]::new);
+            for (int i = start; i < end; i = skipWhitespace(fullCommand, i, end)) {
+                int numberEnd = skipWord(fullCommand, i, end);
+                int dash = i + 1;
+                while (dash < numberEnd && fullCommand.charAt(dash) != '-') {
+                    dash++;
+                }
+
+                int first = Integer.parseInt(fullCommand, i, dash, 10);
+                int last = dash < numberEnd
+                    ? Integer.parseInt(fullCommand, dash + 1, numberEnd, 10)
+                    : first;
+                if (last < first) {
+                    throw new NoIndexException(command);
+                }
+
+                if (count == firsts.length) {
+                    firsts = Arrays.copyOf(firsts, count * 2);
+                    lasts = Arrays.copyOf(lasts, count * 2);
+                }
+                firsts[count] = first;
+                lasts[count] = last;
+                count++;
+                i = numberEnd;
+            }
         } catch (NumberFormatException numError) {
-            throw new NoIndexException(firstWord);
+            throw new NoIndexException(command);
+        }
+
+        return new int[][] {Arrays.copyOf(firsts, count), Arrays.copyOf(lasts, count)};
+    }
+
+    /**
+     * Parses the range of a done range command (FIRST-LAST).
+     *
+     * @param fullCommand The full command given by the user.
+     * @param start       The start of the range.
+     * @param end         The end of the input, after any trailing whitespace is removed.
+     * @return A command marking the tasks in the range as done.
+     * @throws NoIndexException If the range is not two task numbers separated by a dash.
+     */
+    private static DoneRangeCommand getDoneRange(CharSequence fullCommand, int start, int end)
+        throws NoIndexException {
+
+        int dash = start;
+        while (dash < end && fullCommand.charAt(dash) != '-') {
+            dash++;
+        }
+
+        try {
+            int first = Integer.parseInt(fullCommand, start, dash, 10);
+            int last = Integer.parseInt(fullCommand, dash + 1, end, 10);
+            return new DoneRangeCommand(first, last);
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            throw new NoIndexException("done range");
         }
     }
 
@@ -158,10 +325,50 @@ public class Parser {
      * Parses the keywords given (separated by whitespace).
      *
      * @param fullCommand The full command given by the user.
+     * @param start       The start of the keywords.
+     * @param end         The end of the input, after any trailing whitespace is removed.
      * @return An array of keywords.
+     * @throws NoKeywordException If there are no keywords following the command.
+     */
+    private static String[] getKeywords(CharSequence fullCommand, int start, int end) throws NoKeywordException {
+        start = skipWhitespace(fullCommand, start, end);
+        if (start == end) {
+            throw new NoKeywordException();
+        }
+
+        int count = 0;
+        for (int i = start; i < end; i = skipWhitespace(fullCommand, skipWord(fullCommand, i, end), end)) {
+            count++;
+        }
+
+        String[] keywords = new String[count];
+        for (int i = start, k = 0; i < end; i = skipWhitespace(fullCommand, i, end)) {
+            int keywordEnd = skipWord(fullCommand, i, end);
+            keywords[k++] = fullCommand.subSequence(i, keywordEnd).toString();
+            i = keywordEnd;
+        }
+
+        return keywords;
+    }
+
+    /**
+     * Parses the search option of a find command (/exact, /prefix or /sub).
+     *
+     * @param fullCommand The full command given by the user.
+     * @param start       The start of the first word following the find command.
+     * @param end         The end of the word.
+     * @return The search mode, or null if the word is not a search option.
      */
-    public static String[] getKeywords(String fullCommand) {
-        return fullCommand.substring("find ".length()).trim().split(" ");
+    private static TaskList.SearchMode getSearchMode(CharSequence fullCommand, int start, int end) {
+        if (isWord(fullCommand, start, end, "/exact")) {
+            return TaskList.SearchMode.EXACT;
+        } else if (isWord(fullCommand, start, end, "/prefix")) {
+            return TaskList.SearchMode.PREFIX;
+        } else if (isWord(fullCommand, start, end, "/sub")) {
+            return TaskList.SearchMode.SUBSTRING;
+        } else {
+            return null;
+        }
     }
 
     /**
@@ -0,0 +1,202 @@
+package duke;
+
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.function.Consumer;
+
+/**
+ * An immutable sorted map, changed by creating a new version that shares every node with the old one
+ * apart from the path to the changed key. It is an AVL tree, so that path has O(log n) nodes.
+ * Only what the task indexes need is supported: looking up a key, putting an entry and visiting a range of keys.
+ * A version can be read from many threads without locking.
+ *
+ * @param <K> The type of the keys.
+ * @param <V> The type of the values.
+ */
+final class PersistentSortedMap<K extends Comparable<? super K>, V> {
+
+    /** The empty map. */
+    private static final PersistentSortedMap<?, ?> EMPTY = new PersistentSortedMap<>(null);
+
+    /** The root of the tree, or null if the map is empty. */
+    private final Node<K, V> root;
+
+    private PersistentSortedMap(Node<K, V> root) {
+        this.root = root;
+    }
+
+    /**
+     * Returns the empty map.
+     *
+     * @param <K> The type of the keys.
+     * @param <V> The type of the values.
+     * @return The empty map.
+     */
+    @SuppressWarnings("unchecked")
+    static <K extends Comparable<? super K>, V> PersistentSortedMap<K, V> empty() {
+        return (PersistentSortedMap<K, V>) EMPTY;
+    }
+
+    /**
+     * Creates a map with the given entries, building a balanced tree in a single pass.
+     *
+     * @param entries The entries, sorted by the natural order of their keys.
+     * @param <K>     The type of the keys.
+     * @param <V>     The type of the values.
+     * @return The map.
+     */
+    @SuppressWarnings("unchecked")
+    static <K extends Comparable<? super K>, V> PersistentSortedMap<K, V> of(SortedMap<K, V> entries) {
+        Map.Entry<K, V>[] sortedEntries = entries.entrySet().toArray(new Map.Entry[0]);
+        return new PersistentSortedMap<>(build(sortedEntries, 0, sortedEntries.length));
+    }
+
+    /**
+     * Returns the value of a key.
+     *
+     * @param key The key.
+     * @return The value, or null if the key is not in the map.
+     */
+    V get(K key) {
+        Node<K, V> node = root;
+        while (node != null) {
+            int comparison = key.compareTo(node.key);
+            if (comparison == 0) {
+                return node.value;
+            }
+            node = comparison < 0 ? node.left : node.right;
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns a version of the map with the given value for a key, leaving this version unchanged.
+     *
+     * @param key   The key.
+     * @param value The value.
+     * @return The new version.
+     */
+    PersistentSortedMap<K, V> put(K key, V value) {
+        return new PersistentSortedMap<>(put(root, key, value));
+    }
+
+    /**
+     * Visits the values of the keys in a range, in the order of their keys.
+     *
+     * @param from           The lowest key, or null for no lower bound.
+     * @param isFromIncluded True if a key equal to from is visited.
+     * @param to             The highest key, or null for no upper bound.
+     * @param isToIncluded   True if a key equal to to is visited.
+     * @param action         The action done for each value.
+     */
+    void forEachValue(K from, boolean isFromIncluded, K to, boolean isToIncluded, Consumer<? super V> action) {
+        visit(root, from, isFromIncluded, to, isToIncluded, action);
+    }
+
+    private static <K extends Comparable<? super K>, V> void visit(Node<K, V> node, K from, boolean isFromIncluded,
+        K to, boolean isToIncluded, Consumer<? super V> action) {
+
+        if (node == null) {
+            return;
+        }
+
+        int fromComparison = from == null ? 1 : node.key.compareTo(from);
+        int toComparison = to == null ? -1 : node.key.compareTo(to);
+
+        if (fromComparison > 0) {
+            visit(node.left, from, isFromIncluded, to, isToIncluded, action);
+        }
+        if ((fromComparison > 0 || fromComparison == 0 && isFromIncluded)
+            && (toComparison < 0 || toComparison == 0 && isToIncluded)) {
+            action.accept(node.value);
+        }
+        if (toComparison < 0) {
+            visit(node.right, from, isFromIncluded, to, isToIncluded, action);
+        }
+    }
+
+    private static <K extends Comparable<? super K>, V> Node<K, V> build(Map.Entry<K, V>[] entries,
+        int from, int to) {
+
+        if (from == to) {
+            return null;
+        }
+
+        int middle = (from + to) >>> 1;
+        return new Node<>(entries[middle].getKey(), entries[middle].getValue(),
+            build(entries, from, middle), build(entries, middle + 1, to));
+    }
+
+    private static <K extends Comparable<? super K>, V> Node<K, V> put(Node<K, V> node, K key, V value) {
+        if (node == null) {
+            return new Node<>(key, value, null, null);
+        }
+
+        int comparison = key.compareTo(node.key);
+        if (comparison == 0) {
+            return new Node<>(node.key, value, node.left, node.right);
+        }
+
+        return comparison < 0
+            ? balance(node.key, node.value, put(node.left, key, value), node.right)
+            : balance(node.key, node.value, node.left, put(node.right, key, value));
+    }
+
+    /**
+     * Creates a node from its entry and subtrees, rotating them if their heights differ by more than one.
+     *
+     * @param key   The key of the node.
+     * @param value The value of the node.
+     * @param left  The subtree of the lower keys, which is balanced.
+     * @param right The subtree of the higher keys, which is balanced.
+     * @return The balanced subtree.
+     */
+    private static <K extends Comparable<? super K>, V> Node<K, V> balance(K key, V value, Node<K, V> left,
+        Node<K, V> right) {
+
+        if (height(left) > height(right) + 1) {
+            if (height(left.left) >= height(left.right)) {
+                return new Node<>(left.key, left.value, left.left, new Node<>(key, value, left.right, right));
+            }
+
+            Node<K, V> middle = left.right;
+            return new Node<>(middle.key, middle.value, new Node<>(left.key, left.value, left.left, middle.left),
+                new Node<>(key, value, middle.right, right));
+        } else if (height(right) > height(left) + 1) {
+            if (height(right.right) >= height(right.left)) {
+                return new Node<>(right.key, right.value, new Node<>(key, value, left, right.left), right.right);
+            }
+
+            Node<K, V> middle = right.left;
+            return new Node<>(middle.key, middle.value, new Node<>(key, value, left, middle.left),
+                new Node<>(right.key, right.value, middle.right, right.right));
+        }
+
+        return new Node<>(key, value, left, right);
+    }
+
+    private static int height(Node<?, ?> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    /** A node of the tree, which is never changed once created. */
+    private static final class Node<K, V> {
+
+        final K key;
+        final V value;
+        final Node<K, V> left;
+        final Node<K, V> right;
+
+        /** The number of nodes on the longest path from this node to a leaf, including both. */
+        final int height;
+
+        Node(K key, V value, Node<K, V> left, Node<K, V> right) {
+            this.key = key;
+            this.value = value;
+            this.left = left;
+            this.right = right;
+            this.height = Math.max(height(left), height(right)) + 1;
+        }
+    }
+}
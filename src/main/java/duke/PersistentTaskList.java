@@ -0,0 +1,679 @@
+package duke;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+import duke.task.Task;
+
+/**
+ * An immutable task list, changed by creating a new version that shares most of its structure with the old one.
+ * The tasks are kept in the leaves of a tree of up to 32-way nodes, so getting a task takes a few array reads and
+ * a change copies only the nodes on the path to the tasks it changes.
+ *
+ * <p>Each branch records how many tasks are under its children, so that a task can be removed from the middle of
+ * the list by copying just its leaf and the branches above it, leaving the leaf less than full. The child holding
+ * an index is the one given by the bits of the index, as in a trie, or a later one if the children before it
+ * are less than full.
+ *
+ * <p>A leaf refers to its tasks by their index in a base list, which every version shares and none changes,
+ * so a lazily loaded or columnar list is read just as before. Tasks added later are held by the leaves
+ * themselves, and the tasks marked as done are kept as a bit mask in each leaf, so that marking tasks
+ * done does not read them.
+ *
+ * <p>As a version is never changed, any number of threads can read it while another thread creates the next one,
+ * and keeping old versions, such as for undoing changes, costs only the nodes each change copied.
+ */
+final class PersistentTaskList extends AbstractList<Task> implements RandomAccess {
+
+    /** The number of bits of an index used at each level of the tree. */
+    private static final int BITS = 5;
+
+    /** The largest number of children of a node, which is also the number of tasks in a full leaf. */
+    private static final int WIDTH = 1 << BITS;
+
+    /** The base index of a task held by its leaf instead of the base list. */
+    private static final int NOT_IN_BASE = -1;
+
+    /** The leaf of an empty list. */
+    private static final Leaf EMPTY_LEAF = new Leaf(0, new int[0], null, 0);
+
+    /** The list the tasks were loaded into, shared by every version and never changed. */
+    private final List<Task> base;
+
+    /** The root of the tree: a leaf if the list fits in one, otherwise a branch. */
+    private final Object root;
+
+    /** The number of bits of an index below the root, or 0 if the root is a leaf. */
+    private final int shift;
+
+    /** The number of tasks. */
+    private final int size;
+
+    private PersistentTaskList(List<Task> base, Object root, int shift, int size) {
+        this.base = base;
+        this.root = root;
+        this.shift = shift;
+        this.size = size;
+    }
+
+    /**
+     * Creates a list of the tasks in the base list, which must not be changed afterwards.
+     * The tasks are not read, so a lazily loaded list stays unread.
+     *
+     * @param base The tasks.
+     * @return The list.
+     */
+    static PersistentTaskList of(List<Task> base) {
+        Builder builder = new Builder();
+        int baseSize = base.size();
+        for (int start = 0; start < baseSize; start += WIDTH) {
+            builder.addLeaf(new Leaf(start, null, null, Math.min(WIDTH, baseSize - start)));
+        }
+
+        return builder.build(base);
+    }
+
+    @Override
+    public Task get(int index) {
+        Objects.checkIndex(index, size);
+        Object node = root;
+        int slot = index;
+        for (int level = shift; level > 0; level -= BITS) {
+            Branch branch = (Branch) node;
+            int child = branch.getChild(slot, level);
+            slot -= branch.getStart(child);
+            node = branch.children[child];
+        }
+
+        Leaf leaf = (Leaf) node;
+        Task task = leaf.tasks != null && leaf.tasks[slot] != null
+            ? leaf.tasks[slot]
+            : base.get(leaf.getBaseIndex(slot));
+        return leaf.isMarked(slot) && task != null && !task.isDone()
+            ? task.markDone()
+            : task;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns whether the task at the given index is done, without reading it from the base list if the base list
+     * keeps the done status apart from the tasks.
+     *
+     * @param index The index of the task.
+     * @return True if the task is done.
+     */
+    boolean isDone(int index) {
+        Objects.checkIndex(index, size);
+        Object node = root;
+        int slot = index;
+        for (int level = shift; level > 0; level -= BITS) {
+            Branch branch = (Branch) node;
+            int child = branch.getChild(slot, level);
+            slot -= branch.getStart(child);
+            node = branch.children[child];
+        }
+
+        Leaf leaf = (Leaf) node;
+        int baseIndex = leaf.getBaseIndex(slot);
+        if (leaf.isMarked(slot)) {
+            return true;
+        } else if (baseIndex == NOT_IN_BASE) {
+            return leaf.tasks[slot].isDone();
+        } else if (base instanceof MappedTaskList) {
+            return ((MappedTaskList) base).isDone(baseIndex);
+        } else if (base instanceof ColumnarTaskList) {
+            return ((ColumnarTaskList) base).isDone(baseIndex);
+        }
+
+        Task task = base.get(baseIndex);
+        return task != null && task.isDone();
+    }
+
+    /**
+     * Obtains the list the tasks were loaded into.
+     *
+     * @return The base list.
+     */
+    List<Task> getBase() {
+        return base;
+    }
+
+    /**
+     * Creates a version of the list with a task added to the end.
+     *
+     * @param task The task to be added.
+     * @return The new version.
+     */
+    PersistentTaskList append(Task task) {
+        Object newRoot = append(root, shift, task);
+        if (newRoot == null) {
+            // The tree is full, so it becomes the first child of a new root
+            newRoot = Branch.of(root, newPath(shift, EMPTY_LEAF.append(task)));
+            return new PersistentTaskList(base, newRoot, shift + BITS, size + 1);
+        }
+
+        return new PersistentTaskList(base, newRoot, shift, size + 1);
+    }
+
+    /**
+     * Creates a version of the list with the tasks in the given range marked as done.
+     * Only the leaves in the range and the nodes above them are copied; the tasks are not read.
+     *
+     * @param from The index of the first task to be marked.
+     * @param to   The index after the last task to be marked.
+     * @return The new version.
+     */
+    PersistentTaskList markDone(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        if (from == to) {
+            return this;
+        }
+
+        return new PersistentTaskList(base, markDone(root, shift, from, to), shift, size);
+    }
+
+    /**
+     * Creates a version of the list without the tasks at the given indexes.
+     * A few tasks are removed one at a time, each copying its leaf and the branches above it. When that would
+     * copy more nodes than there are branches, the leaves without removed tasks are shared, the tasks left in
+     * the others are packed into new leaves, without reading the tasks, and the branches are built again.
+     *
+     * @param indexes The indexes of the tasks to be removed, sorted and without duplicates.
+     * @return The new version.
+     */
+    PersistentTaskList removeIndexes(int... indexes) {
+        if (indexes.length == 0) {
+            return this;
+        }
+        Objects.checkIndex(indexes[0], size);
+        Objects.checkIndex(indexes[indexes.length - 1], size);
+
+        if ((long) indexes.length * (shift / BITS + 1) * WIDTH < size / WIDTH) {
+            PersistentTaskList list = this;
+            for (int i = indexes.length - 1; i >= 0; i--) {
+                list = list.without(indexes[i]);
+            }
+            return list;
+        }
+
+        ArrayList<Leaf> leaves = new ArrayList<>(size / WIDTH + 1);
+        collectLeaves(root, shift, leaves);
+
+        Builder builder = new Builder();
+        int start = 0;
+        int next = 0;
+        for (Leaf leaf : leaves) {
+            if (next == indexes.length || indexes[next] >= start + leaf.size) {
+                builder.addLeaf(leaf);
+                start += leaf.size;
+                continue;
+            }
+
+            for (int slot = 0; slot < leaf.size; slot++) {
+                if (next < indexes.length && indexes[next] == start + slot) {
+                    next++;
+                    continue;
+                }
+                builder.add(leaf.getBaseIndex(slot), leaf.tasks != null ? leaf.tasks[slot] : null,
+                    leaf.isMarked(slot));
+            }
+            start += leaf.size;
+        }
+
+        return builder.build(base);
+    }
+
+    /**
+     * Creates a version of the list without the task at the given index,
+     * copying only its leaf and the branches above it.
+     *
+     * @param index The index of the task.
+     * @return The new version.
+     */
+    private PersistentTaskList without(int index) {
+        Object newRoot = without(root, shift, index);
+        if (newRoot == null) {
+            return new PersistentTaskList(base, EMPTY_LEAF, 0, 0);
+        }
+
+        // A root left with a single child is replaced by the child
+        int newShift = shift;
+        while (newRoot instanceof Branch && ((Branch) newRoot).children.length == 1) {
+            newRoot = ((Branch) newRoot).children[0];
+            newShift -= BITS;
+        }
+
+        return new PersistentTaskList(base, newRoot, newShift, size - 1);
+    }
+
+    /**
+     * Returns the number of tasks under a node.
+     *
+     * @param node The node.
+     * @return The number of tasks.
+     */
+    private static int sizeOf(Object node) {
+        return node instanceof Leaf ? ((Leaf) node).size : ((Branch) node).size();
+    }
+
+    /**
+     * Copies the path to the last leaf under a node with a task added after its last task,
+     * starting a new leaf if the last one is full.
+     *
+     * @param node  The node.
+     * @param shift The number of bits of an index below the node.
+     * @param task  The new task.
+     * @return The copy of the node, or null if the node has no room for another task.
+     */
+    private static Object append(Object node, int shift, Task task) {
+        if (shift == 0) {
+            Leaf leaf = (Leaf) node;
+            return leaf.size < WIDTH ? leaf.append(task) : null;
+        }
+
+        Branch branch = (Branch) node;
+        int last = branch.children.length - 1;
+        Object newLast = append(branch.children[last], shift - BITS, task);
+        if (newLast != null) {
+            return branch.replace(last, newLast, 1);
+        }
+
+        return branch.children.length < WIDTH
+            ? branch.add(newPath(shift - BITS, EMPTY_LEAF.append(task)))
+            : null;
+    }
+
+    /**
+     * Creates the nodes leading down to a new leaf.
+     *
+     * @param shift The number of bits of an index below the top node.
+     * @param leaf  The leaf.
+     * @return The top node.
+     */
+    private static Object newPath(int shift, Leaf leaf) {
+        Object node = leaf;
+        for (int level = 0; level < shift; level += BITS) {
+            node = Branch.of(node);
+        }
+
+        return node;
+    }
+
+    /**
+     * Copies the nodes covering a range of tasks with the tasks in the range marked as done.
+     *
+     * @param node  The node.
+     * @param shift The number of bits of an index below the node.
+     * @param from  The index of the first task to be marked, counted from the first task under the node.
+     * @param to    The index after the last task to be marked, counted from the first task under the node.
+     * @return The copy of the node.
+     */
+    private static Object markDone(Object node, int shift, int from, int to) {
+        if (shift == 0) {
+            Leaf leaf = (Leaf) node;
+            int first = Math.max(from, 0);
+            int last = Math.min(to, leaf.size);
+            int mask = (int) ((1L << last) - (1L << first));
+            return new Leaf(leaf.baseStart, leaf.baseIndexes, leaf.tasks, leaf.size, leaf.doneMask | mask);
+        }
+
+        Branch branch = (Branch) node;
+        Object[] children = branch.children.clone();
+        for (int i = from > 0 ? branch.getChild(from, shift) : 0; i < children.length && branch.getStart(i) < to; i++) {
+            int start = branch.getStart(i);
+            children[i] = markDone(children[i], shift - BITS, from - start, to - start);
+        }
+
+        return new Branch(children, branch.sizes);
+    }
+
+    /**
+     * Copies the path to a task without the task, dropping the nodes it leaves empty.
+     *
+     * @param node  The node.
+     * @param shift The number of bits of an index below the node.
+     * @param index The index of the task, counted from the first task under the node.
+     * @return The copy of the node, or null if the task was the only one under the node.
+     */
+    private static Object without(Object node, int shift, int index) {
+        if (shift == 0) {
+            Leaf leaf = (Leaf) node;
+            return leaf.size > 1 ? leaf.remove(index) : null;
+        }
+
+        Branch branch = (Branch) node;
+        int child = branch.getChild(index, shift);
+        Object newChild = without(branch.children[child], shift - BITS, index - branch.getStart(child));
+        if (newChild != null) {
+            return branch.replace(child, newChild, -1);
+        }
+
+        return branch.children.length > 1 ? branch.remove(child) : null;
+    }
+
+    /**
+     * Adds the leaves under a node to a list, in order.
+     *
+     * @param node   The node.
+     * @param shift  The number of bits of an index below the node.
+     * @param leaves The list of leaves.
+     */
+    private static void collectLeaves(Object node, int shift, List<Leaf> leaves) {
+        if (shift == 0) {
+            leaves.add((Leaf) node);
+            return;
+        }
+
+        for (Object child : ((Branch) node).children) {
+            collectLeaves(child, shift - BITS, leaves);
+        }
+    }
+
+    /**
+     * A node holding up to 32 tasks, by their index in the base list or as task objects.
+     * Its arrays are never changed once it is created, so copies of a leaf share them.
+     */
+    private static final class Leaf {
+
+        /** The base index of the first task, if the tasks are a run of the base list. */
+        final int baseStart;
+
+        /** The index of each task in the base list or NOT_IN_BASE, or null if the tasks are a run of the base list. */
+        final int[] baseIndexes;
+
+        /** The tasks that are not in the base list, by slot, or null if every task is in the base list. */
+        final Task[] tasks;
+
+        /** The number of tasks. */
+        final int size;
+
+        /** The slots of the tasks marked as done, one bit each. */
+        final int doneMask;
+
+        Leaf(int baseStart, int[] baseIndexes, Task[] tasks, int size) {
+            this(baseStart, baseIndexes, tasks, size, 0);
+        }
+
+        Leaf(int baseStart, int[] baseIndexes, Task[] tasks, int size, int doneMask) {
+            this.baseStart = baseStart;
+            this.baseIndexes = baseIndexes;
+            this.tasks = tasks;
+            this.size = size;
+            this.doneMask = doneMask;
+        }
+
+        int getBaseIndex(int slot) {
+            return baseIndexes != null ? baseIndexes[slot] : baseStart + slot;
+        }
+
+        boolean isMarked(int slot) {
+            return (doneMask & 1 << slot) != 0;
+        }
+
+        /**
+         * Creates a copy of the leaf with a task added after its last task.
+         *
+         * @param task The task.
+         * @return The new leaf.
+         */
+        Leaf append(Task task) {
+            int[] newBaseIndexes = new int[size + 1];
+            for (int slot = 0; slot < size; slot++) {
+                newBaseIndexes[slot] = getBaseIndex(slot);
+            }
+            newBaseIndexes[size] = NOT_IN_BASE;
+
+            Task[] newTasks = tasks != null ? Arrays.copyOf(tasks, size + 1) : new Task[size + 1];
+            newTasks[size] = task;
+            return new Leaf(0, newBaseIndexes, newTasks, size + 1, doneMask);
+        }
+
+        /**
+         * Creates a copy of the leaf without one of its tasks.
+         *
+         * @param removedSlot The slot of the task.
+         * @return The new leaf.
+         */
+        Leaf remove(int removedSlot) {
+            int[] newBaseIndexes = new int[size - 1];
+            Task[] newTasks = tasks != null ? new Task[size - 1] : null;
+            int newDoneMask = doneMask & ((1 << removedSlot) - 1);
+            for (int slot = 0, kept = 0; slot < size; slot++) {
+                if (slot == removedSlot) {
+                    continue;
+                }
+                newBaseIndexes[kept] = getBaseIndex(slot);
+                if (tasks != null) {
+                    newTasks[kept] = tasks[slot];
+                }
+                if (slot > removedSlot && isMarked(slot)) {
+                    newDoneMask |= 1 << kept;
+                }
+                kept++;
+            }
+
+            return new Leaf(0, newBaseIndexes, newTasks, size - 1, newDoneMask);
+        }
+    }
+
+    /**
+     * A node with up to 32 children of the same height, which are leaves or other branches.
+     * Its arrays are never changed once it is created, so copies of a branch share them.
+     */
+    private static final class Branch {
+
+        /** The children. */
+        final Object[] children;
+
+        /** The number of tasks under each child and the children before it. */
+        final int[] sizes;
+
+        Branch(Object[] children, int[] sizes) {
+            this.children = children;
+            this.sizes = sizes;
+        }
+
+        /**
+         * Creates a branch over the given children, counting the tasks under them.
+         *
+         * @param children The children.
+         * @return The branch.
+         */
+        static Branch of(Object... children) {
+            int[] sizes = new int[children.length];
+            int total = 0;
+            for (int i = 0; i < children.length; i++) {
+                total += sizeOf(children[i]);
+                sizes[i] = total;
+            }
+
+            return new Branch(children, sizes);
+        }
+
+        int size() {
+            return sizes[sizes.length - 1];
+        }
+
+        /**
+         * Returns the index of the first task under a child, counted from the first task under the branch.
+         *
+         * @param child The index of the child.
+         * @return The index of the task.
+         */
+        int getStart(int child) {
+            return child > 0 ? sizes[child - 1] : 0;
+        }
+
+        /**
+         * Finds the child holding the task at the given index. As no child holds more than {@code 1 << shift} tasks,
+         * the child is never before the one given by the bits of the index, and is that one while the children
+         * before it are full.
+         *
+         * @param index The index of the task, counted from the first task under the branch.
+         * @param shift The number of bits of an index below the branch.
+         * @return The index of the child.
+         */
+        int getChild(int index, int shift) {
+            int child = index >>> shift;
+            while (sizes[child] <= index) {
+                child++;
+            }
+
+            return child;
+        }
+
+        /**
+         * Creates a copy of the branch with a child replaced.
+         *
+         * @param child The index of the child.
+         * @param node  The new child.
+         * @param added The number of tasks the new child has more than the old one, or fewer if negative.
+         * @return The new branch.
+         */
+        Branch replace(int child, Object node, int added) {
+            Object[] newChildren = children.clone();
+            newChildren[child] = node;
+            int[] newSizes = sizes.clone();
+            for (int i = child; i < newSizes.length; i++) {
+                newSizes[i] += added;
+            }
+
+            return new Branch(newChildren, newSizes);
+        }
+
+        /**
+         * Creates a copy of the branch with a child added after its last child.
+         *
+         * @param node The new child.
+         * @return The new branch.
+         */
+        Branch add(Object node) {
+            Object[] newChildren = Arrays.copyOf(children, children.length + 1);
+            newChildren[children.length] = node;
+            int[] newSizes = Arrays.copyOf(sizes, sizes.length + 1);
+            newSizes[sizes.length] = size() + sizeOf(node);
+            return new Branch(newChildren, newSizes);
+        }
+
+        /**
+         * Creates a copy of the branch without one of its children.
+         *
+         * @param child The index of the child.
+         * @return The new branch.
+         */
+        Branch remove(int child) {
+            int removed = sizes[child] - getStart(child);
+            Object[] newChildren = new Object[children.length - 1];
+            int[] newSizes = new int[sizes.length - 1];
+            for (int i = 0; i < newChildren.length; i++) {
+                newChildren[i] = children[i < child ? i : i + 1];
+                newSizes[i] = i < child ? sizes[i] : sizes[i + 1] - removed;
+            }
+
+            return new Branch(newChildren, newSizes);
+        }
+    }
+
+    /** Builds a list from its leaves and tasks in order, packing the tasks added one at a time into full leaves. */
+    private static final class Builder {
+
+        /** The leaves added so far. */
+        private final ArrayList<Object> leaves = new ArrayList<>();
+
+        /** The base indexes of the tasks in the leaf being filled. */
+        private int[] baseIndexes = new int[WIDTH];
+
+        /** The tasks in the leaf being filled that are not in the base list, or null if there are none yet. */
+        private Task[] tasks;
+
+        /** The slots of the tasks marked as done in the leaf being filled. */
+        private int doneMask;
+
+        /** The number of tasks in the leaf being filled. */
+        private int count;
+
+        /** The number of tasks added. */
+        private int size;
+
+        /**
+         * Adds the tasks of a whole leaf, after the leaf being filled.
+         *
+         * @param leaf The leaf.
+         */
+        void addLeaf(Leaf leaf) {
+            endLeaf();
+            leaves.add(leaf);
+            size += leaf.size;
+        }
+
+        /**
+         * Adds a task.
+         *
+         * @param baseIndex The index of the task in the base list, or NOT_IN_BASE.
+         * @param task      The task if it is not in the base list, or null.
+         * @param isMarked  True if the task is marked as done.
+         */
+        void add(int baseIndex, Task task, boolean isMarked) {
+            baseIndexes[count] = baseIndex;
+            if (task != null) {
+                if (tasks == null) {
+                    tasks = new Task[WIDTH];
+                }
+                tasks[count] = task;
+            }
+            if (isMarked) {
+                doneMask |= 1 << count;
+            }
+
+            count++;
+            size++;
+            if (count == WIDTH) {
+                endLeaf();
+            }
+        }
+
+        /** Adds the leaf being filled, if it has any tasks, and starts a new one. */
+        private void endLeaf() {
+            if (count == 0) {
+                return;
+            }
+
+            leaves.add(new Leaf(0, Arrays.copyOf(baseIndexes, count),
+                tasks != null ? Arrays.copyOf(tasks, count) : null, count, doneMask));
+            tasks = null;
+            doneMask = 0;
+            count = 0;
+        }
+
+        /**
+         * Builds the tree over the leaves, one level of branches at a time.
+         *
+         * @param base The base list.
+         * @return The list.
+         */
+        PersistentTaskList build(List<Task> base) {
+            endLeaf();
+
+            List<Object> nodes = leaves;
+            int shift = 0;
+            while (nodes.size() > 1) {
+                ArrayList<Object> parents = new ArrayList<>(nodes.size() / WIDTH + 1);
+                for (int i = 0; i < nodes.size(); i += WIDTH) {
+                    parents.add(Branch.of(nodes.subList(i, Math.min(i + WIDTH, nodes.size())).toArray()));
+                }
+                nodes = parents;
+                shift += BITS;
+            }
+
+            return new PersistentTaskList(base, nodes.isEmpty() ? EMPTY_LEAF : nodes.get(0), shift, size);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package duke;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A Java Flight Recorder event covering the whole of {@link Duke#getResponse(String)}: parsing the input,
+ * running the command and any saving it does. Recorded when a recording enables it, such as one started
+ * with {@code jcmd <pid> JFR.start}; otherwise it costs next to nothing.
+ */
+@Name("duke.Response")
+@Label("Response")
+@Category("Duke")
+@Description("The bot responding to an input, from parsing it to the end of its command")
+@StackTrace(false)
+final class ResponseEvent extends Event {
+
+    @Label("Command")
+    @Description("The type of the command, or null if the input is not a valid command")
+    String command;
+
+    @Label("Input Length")
+    int inputLength;
+
+    @Label("Response Length")
+    int responseLength;
+
+    @Label("Failed")
+    boolean isFailed;
+}
@@ -0,0 +1,26 @@
+package duke;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** A Java Flight Recorder event covering a write of the whole task list to the saved file. */
+@Name("duke.Save")
+@Label("Save")
+@Category({"Duke", "Storage"})
+@Description("The task list being encoded and written to the saved file, and forced to disk")
+final class SaveEvent extends Event {
+
+    @Label("Saved File")
+    String path;
+
+    @Label("Tasks")
+    int taskCount;
+
+    @Label("Bytes Written")
+    @DataAmount
+    long bytesWritten;
+}
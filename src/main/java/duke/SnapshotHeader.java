@@ -0,0 +1,111 @@
+package duke;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+/**
+ * The header line at the start of a saved file: {@code #duke GENERATION CHECKSUM}.
+ * The generation increases every time the task list is saved, and the checksum is the CRC32
+ * of the rest of the file, so that a file cut short by a crash can be told apart from a complete one.
+ * Files saved before the header was introduced have no header and are treated as generation 0.
+ */
+final class SnapshotHeader {
+
+    /** The start of the header line. */
+    static final String PREFIX = "#duke ";
+
+    /** The header of a file saved without one. */
+    private static final SnapshotHeader NONE = new SnapshotHeader(0, -1, 0);
+
+    /** The generation of the saved file. */
+    final long generation;
+
+    /** The CRC32 of the contents after the header, or -1 if the file has no header. */
+    private final long checksum;
+
+    /** The length of the header line in bytes, including the line break. */
+    private final int length;
+
+    private SnapshotHeader(long generation, long checksum, int length) {
+        this.generation = generation;
+        this.checksum = checksum;
+        this.length = length;
+    }
+
+    /**
+     * Encodes the header line of a saved file.
+     *
+     * @param generation The generation of the saved file.
+     * @param contents   The contents that follow the header.
+     * @return The header line.
+     */
+    static byte[] encode(long generation, byte[] contents) {
+        CRC32 crc = new CRC32();
+        crc.update(contents);
+
+        return String.format("%s%d %08x\n", PREFIX, generation, crc.getValue()).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Reads the header line of a saved file.
+     *
+     * @param file The contents of the file.
+     * @return The header, or null if the file starts with a header line that cannot be read.
+     */
+    static SnapshotHeader read(ByteBuffer file) {
+        int limit = file.limit();
+        if (limit == 0 || file.get(0) != PREFIX.charAt(0)) {
+            return NONE;
+        }
+
+        int end = 0;
+        while (end < limit && file.get(end) != '\n') {
+            end++;
+        }
+        if (end == limit) {
+            return null;
+        }
+
+        byte[] line = new byte[end];
+        file.duplicate().get(line);
+        String[] fields = new String(line, StandardCharsets.US_ASCII).split(" ");
+
+        try {
+            if (fields.length != 3 || !PREFIX.equals(fields[0] + " ")) {
+                return null;
+            }
+
+            return new SnapshotHeader(Long.parseLong(fields[1]), Long.parseLong(fields[2], 16), end + 1);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Checks the contents after the header against the checksum.
+     *
+     * @param file The contents of the file.
+     * @return True if the file has no header, or if the checksum matches.
+     */
+    boolean isValid(ByteBuffer file) {
+        if (checksum < 0) {
+            return true;
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(contents(file));
+
+        return crc.getValue() == checksum;
+    }
+
+    /**
+     * Returns the contents of the file after the header.
+     *
+     * @param file The contents of the file.
+     * @return A buffer over the contents, starting at index 0.
+     */
+    ByteBuffer contents(ByteBuffer file) {
+        return file.duplicate().position(length).slice();
+    }
+}
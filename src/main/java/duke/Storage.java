@@ -1,11 +1,31 @@
 package duke;
 
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import duke.exception.FileLoadError;
 import duke.task.Deadline;
@@ -16,22 +36,184 @@ import duke.task.ToDo;
 /** Deals with saving and loading the data into a file. */
 public class Storage {
 
+    /** The formats the task list can be saved in. */
+    public enum Format {
+        /** One line of text per task (duke.txt). */
+        TEXT,
+        /** Compact binary records (duke.bin), see {@link BinaryTaskFormat}. */
+        BINARY
+    }
+
+    /** Number of journal records appended before the journal is forced to disk. */
+    private static final int SYNC_INTERVAL = 32;
+
+    /** Number of journal records after which the journal is compacted into the snapshot. */
+    private static final int COMPACT_THRESHOLD = 10_000;
+
+    /** Journal record prefix for an added task. */
+    private static final String ADD_RECORD = "add ";
+
+    /** Journal record prefix for tasks marked as done. */
+    private static final String DONE_RECORD = "done ";
+
+    /** Journal record prefix for deleted tasks. */
+    private static final String DELETE_RECORD = "delete ";
+
+    /** Journal record of undoing the latest change. */
+    private static final String UNDO_RECORD = "undo";
+
+    /** Journal record of redoing the latest change undone. */
+    private static final String REDO_RECORD = "redo";
+
+    /** The first line of the journal, followed by the generation of the saved file the journal applies to. */
+    private static final String JOURNAL_HEADER = SnapshotHeader.PREFIX;
+
+    /** Size in bytes of the chunks a text save file is split into to be read in parallel. */
+    private static final int TEXT_CHUNK_SIZE = 1 << 20;
+
+    /** Suffix of the file a new generation is written to before it replaces the saved file. */
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    /** Suffix of the file the previous generation is kept in. */
+    private static final String PREVIOUS_SUFFIX = ".prev";
+
+    /** The Storages with a delayed save that has not been written yet, which are saved when the program exits. */
+    private static final Set<Storage> STORAGES_WITH_UNSAVED_TASKS = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The thread that writes the delayed saves of every Storage, or null if no save has been delayed yet.
+     * Writing them all on one thread also keeps two saves of the same file from being written at once.
+     */
+    private static ScheduledExecutorService saveScheduler;
+
     /** The filepath to store the data. */
     private final String filePath;
 
+    /** Whether changes are appended to a journal instead of rewriting the whole file. */
+    private final boolean isJournaled;
+
+    /** The format the task list is saved in. */
+    private final Format format;
+
+    /** How long a save is delayed so that later changes can be saved with it, or zero to save immediately. */
+    private final Duration saveDelay;
+
     /** The path to an existing saved file. */
     private Path dukeFile;
 
+    /** The path to the binary save file. */
+    private Path binaryFile;
+
+    /** The path to the journal of changes made since the last snapshot. */
+    private Path journalFile;
+
+    /** The open journal, or null if nothing has been appended yet. */
+    private FileChannel journal;
+
+    /** The generation of the saved file, which increases every time the task list is saved. */
+    private long generation;
+
+    /** Number of records in the journal. */
+    private int journalRecords;
+
+    /** Number of records written to the journal since it was last forced to disk. */
+    private int unsyncedRecords;
+
+    /** Number of changes in the journal that an undo record appended now would undo when the journal is replayed. */
+    private int undoableRecords;
+
+    /** Number of changes in the journal that a redo record appended now would redo when the journal is replayed. */
+    private int redoableRecords;
+
+    /** The changes replayed from the journal by the last load, which can be undone and redone. */
+    private TaskHistory history = new TaskHistory();
+
+    /** Whether saving is deferred until the end of a batch of commands. */
+    private boolean isInBatch;
+
+    /** Whether the task list has changed since the batch began. */
+    private boolean hasBatchChanges;
+
+    /** The task list waiting to be saved by the scheduled save, or null if it has been saved. */
+    private List<Task> unsavedTasks;
+
+    /** The save that will write the unsaved tasks, or null if no save is scheduled. */
+    private ScheduledFuture<?> scheduledSave;
+
+    /** The metrics that the times taken to load, save and journal the task list are recorded in. */
+    private final Metrics metrics;
+
     /**
      * Constructs a Storage.
      *
-     * @param filePath The filepath to store the data in.
+     * @param filePath    The filepath to store the data in.
+     * @param isJournaled True if changes should be appended to a journal (duke.journal)
+     *                    and only periodically compacted into the saved file.
+     * @param format      The format to save the task list in. Tasks saved as text are
+     *                    migrated to the binary format the first time they are loaded.
+     * @param saveDelay   How long to wait before saving the task list in the background, so that
+     *                    a burst of changes is saved with one write. Only used when not journaled,
+     *                    as the journal already saves each change without rewriting the file.
+     * @param metrics     The metrics of the bot, which the storage operations are recorded in.
      */
-    public Storage(String filePath) {
+    public Storage(String filePath, boolean isJournaled, Format format, Duration saveDelay, Metrics metrics) {
         this.filePath = filePath;
+        this.isJournaled = isJournaled;
+        this.format = format;
+        this.saveDelay = saveDelay;
+        this.metrics = metrics;
         createFile();
     }
 
+    /**
+     * Constructs a Storage with metrics of its own.
+     *
+     * @param filePath    The filepath to store the data in.
+     * @param isJournaled True if changes should be appended to a journal (duke.journal)
+     *                    and only periodically compacted into the saved file.
+     * @param format      The format to save the task list in. Tasks saved as text are
+     *                    migrated to the binary format the first time they are loaded.
+     * @param saveDelay   How long to wait before saving the task list in the background, so that
+     *                    a burst of changes is saved with one write. Only used when not journaled,
+     *                    as the journal already saves each change without rewriting the file.
+     */
+    public Storage(String filePath, boolean isJournaled, Format format, Duration saveDelay) {
+        this(filePath, isJournaled, format, saveDelay, new Metrics());
+    }
+
+    /**
+     * Constructs a Storage that saves immediately.
+     *
+     * @param filePath    The filepath to store the data in.
+     * @param isJournaled True if changes should be appended to a journal (duke.journal)
+     *                    and only periodically compacted into the saved file.
+     * @param format      The format to save the task list in. Tasks saved as text are
+     *                    migrated to the binary format the first time they are loaded.
+     */
+    public Storage(String filePath, boolean isJournaled, Format format) {
+        this(filePath, isJournaled, format, Duration.ZERO);
+    }
+
+    /**
+     * Constructs a Storage that saves the task list as text.
+     *
+     * @param filePath    The filepath to store the data in.
+     * @param isJournaled True if changes should be appended to a journal (duke.journal)
+     *                    and only periodically compacted into the saved file.
+     */
+    public Storage(String filePath, boolean isJournaled) {
+        this(filePath, isJournaled, Format.TEXT);
+    }
+
+    /**
+     * Constructs a Storage that rewrites the whole file on every change.
+     *
+     * @param filePath The filepath to store the data in.
+     */
+    public Storage(String filePath) {
+        this(filePath, false);
+    }
+
     /** Creates a file to save the data if it has not existed. */
     private void createFile() {
         try {
@@ -46,6 +228,9 @@ public class Storage {
                 dukeFile = Paths.get(filePath + "/duke.txt");
             }
 
+            journalFile = Paths.get(filePath + "/duke.journal");
+            binaryFile = Paths.get(filePath + "/duke.bin");
+
         } catch (IOException ioException) {
             ioException.printStackTrace();
         }
@@ -53,10 +238,81 @@ public class Storage {
 
     /**
      * Saves the task list into a file.
+     * In journaled mode, this also empties the journal as the file now contains every change.
+     * During a batch, the task list is only saved when the batch ends.
+     * With a save delay, the task list is saved in the background once the delay has passed.
+     *
+     * @param tasks The task list to be saved.
+     */
+    public void saveTasks(List<Task> tasks) {
+        if (isInBatch) {
+            hasBatchChanges = true;
+            return;
+        }
+
+        // The saved file may be mapped by the list, so read every task before it is replaced
+        List<Task> storedTasks = tasks instanceof PersistentTaskList
+            ? ((PersistentTaskList) tasks).getBase()
+            : tasks;
+        if (storedTasks instanceof MappedTaskList) {
+            ((MappedTaskList) storedTasks).decodeAll();
+        }
+
+        if (isJournaled || saveDelay.isZero()) {
+            writeTasks(tasks);
+        } else {
+            scheduleSave(tasks);
+        }
+    }
+
+    /**
+     * Writes the task list into the saved file, replacing the file only once it has been completely written.
+     * In journaled mode, this also empties the journal as the file now contains every change.
+     *
+     * @param tasks The task list to be saved.
+     */
+    private void writeTasks(List<Task> tasks) {
+        SaveEvent event = new SaveEvent();
+        event.begin();
+        long startTime = System.nanoTime();
+        try {
+
+            // The tasks are a version of the task list that is not changed, so they are read without locking
+            byte[] savedTasks = format == Format.BINARY
+                ? encodeBinary(tasks)
+                : encodeText(tasks);
+
+            Path savedFile = format == Format.BINARY ? binaryFile : dukeFile;
+            writeAtomically(savedFile, generation + 1, savedTasks);
+            generation++;
+            metrics.increment(Metrics.SAVED_BYTES, savedTasks.length);
+
+            event.end();
+            if (event.shouldCommit()) {
+                event.path = savedFile.toString();
+                event.taskCount = tasks.size();
+                event.bytesWritten = savedTasks.length;
+                event.commit();
+            }
+
+            if (isJournaled) {
+                clearJournal();
+            }
+
+        } catch (IOException ioException) {
+            ioException.printStackTrace();
+        } finally {
+            metrics.record(Metrics.SAVE, System.nanoTime() - startTime);
+        }
+    }
+
+    /**
+     * Encodes the task list as text, one line per task.
      *
      * @param tasks The task list to be saved.
+     * @return The encoded task list.
      */
-    public void saveTasks(ArrayList<Task> tasks) {
+    private static byte[] encodeText(List<Task> tasks) {
 
         StringBuilder taskString = new StringBuilder();
 
@@ -65,28 +321,586 @@ public class Storage {
             taskString.append("\n");
         }
 
+        return taskString.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Encodes the task list in the binary format.
+     *
+     * @param tasks The task list to be saved.
+     * @return The encoded task list.
+     * @throws IOException If the tasks cannot be encoded.
+     */
+    private static byte[] encodeBinary(List<Task> tasks) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+
+            BinaryTaskFormat.writeHeader(out, tasks.size());
+            for (Task task : tasks) {
+                BinaryTaskFormat.write(out, task);
+            }
+        }
+
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Writes a new generation of the saved file to a temporary file, forces it to disk, then renames it
+     * over the target, so that a crash while saving leaves either the old or the new file but never a partial one.
+     * The replaced generation is kept as the previous generation, to recover from if the new one is damaged.
+     *
+     * @param target     The file to be replaced.
+     * @param generation The generation of the new file.
+     * @param bytes      The new contents of the file.
+     * @throws IOException If the file cannot be written.
+     */
+    private static void writeAtomically(Path target, long generation, byte[] bytes) throws IOException {
+        Path tempFile = siblingFile(target, TEMP_SUFFIX);
+
+        try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+
+            ByteBuffer[] buffers = {ByteBuffer.wrap(SnapshotHeader.encode(generation, bytes)), ByteBuffer.wrap(bytes)};
+            while (buffers[0].hasRemaining() || buffers[1].hasRemaining()) {
+                channel.write(buffers);
+            }
+            channel.force(true);
+        }
+
+        if (Files.exists(target)) {
+            Path previousFile = siblingFile(target, PREVIOUS_SUFFIX);
+            Files.deleteIfExists(previousFile);
+            try {
+                Files.createLink(previousFile, target);
+            } catch (IOException | UnsupportedOperationException e) {
+                Files.copy(target, previousFile);
+            }
+        }
+
+        try {
+            Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Returns the file next to the given file with the suffix added to its name.
+     *
+     * @param file   The file.
+     * @param suffix The suffix.
+     * @return The path to the file with the suffix.
+     */
+    private static Path siblingFile(Path file, String suffix) {
+        return file.resolveSibling(file.getFileName() + suffix);
+    }
+
+    /**
+     * Schedules the task list to be saved once the save delay has passed.
+     * Changes made before then are saved by the same write.
+     *
+     * @param tasks The task list to be saved.
+     */
+    private synchronized void scheduleSave(List<Task> tasks) {
+        unsavedTasks = tasks;
+
+        if (scheduledSave != null) {
+            return;
+        }
+
+        STORAGES_WITH_UNSAVED_TASKS.add(this);
+        scheduledSave = getSaveScheduler().schedule(this::saveUnsavedTasks, saveDelay.toMillis(),
+            TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Obtains the thread that writes delayed saves, starting it the first time.
+     * It is a daemon thread, so a hook that writes the saves still waiting is added when the program exits.
+     *
+     * @return The save thread.
+     */
+    private static synchronized ScheduledExecutorService getSaveScheduler() {
+        if (saveScheduler == null) {
+            saveScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "duke-save");
+                thread.setDaemon(true);
+                return thread;
+            });
+            Runtime.getRuntime().addShutdownHook(new Thread(Storage::flushAllScheduledSaves, "duke-save-flush"));
+        }
+
+        return saveScheduler;
+    }
+
+    /** Saves the task list waiting to be saved, if any. Runs on the save thread. */
+    private void saveUnsavedTasks() {
+        List<Task> tasks;
+        synchronized (this) {
+            tasks = unsavedTasks;
+            unsavedTasks = null;
+            if (scheduledSave != null) {
+                scheduledSave.cancel(false);
+                scheduledSave = null;
+            }
+            STORAGES_WITH_UNSAVED_TASKS.remove(this);
+        }
+
+        if (tasks != null) {
+            writeTasks(tasks);
+        }
+    }
+
+    /** Saves the task list waiting to be saved without waiting for the save delay to pass. */
+    private void flushScheduledSave() {
+        runOnSaveThread(this::saveUnsavedTasks);
+    }
+
+    /** Saves the task lists of every Storage waiting to be saved. Runs when the program exits. */
+    private static void flushAllScheduledSaves() {
+        runOnSaveThread(() -> STORAGES_WITH_UNSAVED_TASKS.forEach(Storage::saveUnsavedTasks));
+    }
+
+    /**
+     * Runs a save on the save thread, after any save being written, and waits for it.
+     * Nothing is run if no save has been delayed yet.
+     *
+     * @param save The save.
+     */
+    private static void runOnSaveThread(Runnable save) {
+        ScheduledExecutorService scheduler;
+        synchronized (Storage.class) {
+            scheduler = saveScheduler;
+        }
+
+        if (scheduler == null) {
+            return;
+        }
+
         try {
-            Files.writeString(dukeFile, taskString);
+            scheduler.submit(save).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Saves the task that was just added to the end of the task list.
+     *
+     * @param tasks The task list after the task is added.
+     */
+    public void saveAddedTask(List<Task> tasks) {
+        if (isInBatch || !isJournaled) {
+            saveTasks(tasks);
+            return;
+        }
+
+        appendChange(ADD_RECORD + tasks.get(tasks.size() - 1).saveFormat(), tasks);
+    }
+
+    /**
+     * Saves the tasks that were just marked as done.
+     *
+     * @param tasks       The task list after the tasks are marked.
+     * @param taskNumbers The numbers of the tasks that were marked.
+     */
+    public void saveDoneTasks(List<Task> tasks, int... taskNumbers) {
+        if (isInBatch || !isJournaled) {
+            saveTasks(tasks);
+            return;
+        }
+
+        appendChange(DONE_RECORD + joinTaskNumbers(taskNumbers), tasks);
+    }
+
+    /**
+     * Saves the range of tasks that was just marked as done.
+     * The journal records the range rather than every task number in it.
+     *
+     * @param tasks The task list after the tasks are marked.
+     * @param first The number of the first task that was marked.
+     * @param last  The number of the last task that was marked, inclusive.
+     */
+    public void saveDoneRange(List<Task> tasks, int first, int last) {
+        if (isInBatch || !isJournaled) {
+            saveTasks(tasks);
+            return;
+        }
+
+        appendChange(DONE_RECORD + first + "-" + last, tasks);
+    }
+
+    /**
+     * Saves the deletion of the given tasks.
+     *
+     * @param tasks       The task list after the tasks are deleted.
+     * @param taskNumbers The numbers the deleted tasks had before they were deleted.
+     */
+    public void saveDeletedTasks(List<Task> tasks, int... taskNumbers) {
+        if (isInBatch || !isJournaled) {
+            saveTasks(tasks);
+            return;
+        }
+
+        appendChange(DELETE_RECORD + joinTaskNumbers(taskNumbers), tasks);
+    }
+
+    /**
+     * Saves the undoing of the latest change.
+     * The journal records the undo if it holds the change, or otherwise the whole task list is saved,
+     * as replaying the journal could not undo a change made before the saved file was written.
+     *
+     * @param tasks The task list after the change is undone.
+     */
+    public void saveUndo(List<Task> tasks) {
+        if (isInBatch || !isJournaled || undoableRecords == 0) {
+            saveTasks(tasks);
+            return;
+        }
+
+        undoableRecords--;
+        redoableRecords++;
+        appendRecord(UNDO_RECORD, tasks);
+    }
+
+    /**
+     * Saves the redoing of the latest change undone.
+     * The journal records the redo if it holds the undo, or otherwise the whole task list is saved.
+     *
+     * @param tasks The task list after the change is redone.
+     */
+    public void saveRedo(List<Task> tasks) {
+        if (isInBatch || !isJournaled || redoableRecords == 0) {
+            saveTasks(tasks);
+            return;
+        }
+
+        undoableRecords++;
+        redoableRecords--;
+        appendRecord(REDO_RECORD, tasks);
+    }
+
+    /**
+     * Begins a batch of commands.
+     * Until the batch ends, changes to the task list are not saved, so that a batch of many
+     * commands is saved with a single write.
+     */
+    public void beginBatch() {
+        isInBatch = true;
+        hasBatchChanges = false;
+    }
+
+    /**
+     * Ends a batch of commands, saving the task list if it was changed during the batch.
+     *
+     * @param tasks The task list at the end of the batch.
+     */
+    public void endBatch(List<Task> tasks) {
+        isInBatch = false;
+
+        if (hasBatchChanges) {
+            saveTasks(tasks);
+        }
+    }
+
+    /**
+     * Writes any save that is waiting for the save delay to pass, then forces any journal records
+     * that are not yet on disk to be written and closes the journal.
+     */
+    public void flush() {
+        flushScheduledSave();
+
+        if (journal == null) {
+            return;
+        }
+
+        try {
+            journal.force(false);
+            journal.close();
         } catch (IOException ioException) {
             ioException.printStackTrace();
+        } finally {
+            journal = null;
+            unsyncedRecords = 0;
         }
     }
 
+    /**
+     * Obtains the changes replayed from the journal by the last load, which the task list loaded can undo.
+     *
+     * @return The changes.
+     */
+    TaskHistory getHistory() {
+        return history;
+    }
+
+    /**
+     * Appends the record of a change to the journal, after which the change can be undone.
+     *
+     * @param journalRecord The record to append.
+     * @param tasks         The task list after the change, used when compacting.
+     */
+    private void appendChange(String journalRecord, List<Task> tasks) {
+        undoableRecords++;
+        redoableRecords = 0;
+        appendRecord(journalRecord, tasks);
+    }
+
+    /**
+     * Appends a record to the journal, forcing the journal to disk every {@code SYNC_INTERVAL} records
+     * and compacting it into the saved file once it grows past {@code COMPACT_THRESHOLD} records.
+     *
+     * @param journalRecord The record to append.
+     * @param tasks         The task list after the change, used when compacting.
+     */
+    private void appendRecord(String journalRecord, List<Task> tasks) {
+        JournalEvent event = new JournalEvent();
+        event.begin();
+        long startTime = System.nanoTime();
+        try {
+
+            if (journal == null) {
+                journal = FileChannel.open(journalFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                if (journal.size() == 0) {
+                    writeJournalHeader();
+                }
+            }
+
+            byte[] record = (journalRecord + "\n").getBytes(StandardCharsets.UTF_8);
+            journal.write(ByteBuffer.wrap(record));
+            journalRecords++;
+            unsyncedRecords++;
+
+            boolean isForced = unsyncedRecords >= SYNC_INTERVAL;
+            if (isForced) {
+                journal.force(false);
+                unsyncedRecords = 0;
+            }
+
+            event.end();
+            if (event.shouldCommit()) {
+                event.bytesWritten = record.length;
+                event.isForced = isForced;
+                event.commit();
+            }
+
+            if (journalRecords >= COMPACT_THRESHOLD) {
+                saveTasks(tasks);
+            }
+
+        } catch (IOException ioException) {
+            ioException.printStackTrace();
+        } finally {
+            metrics.record(Metrics.JOURNAL, System.nanoTime() - startTime);
+        }
+    }
+
+    /**
+     * Empties the journal after its records have been compacted into the saved file.
+     *
+     * @throws IOException If the journal cannot be truncated.
+     */
+    private void clearJournal() throws IOException {
+        if (journal != null) {
+            journal.truncate(0);
+            writeJournalHeader();
+            journal.force(false);
+        } else if (Files.exists(journalFile)) {
+            Files.write(journalFile, new byte[0]);
+        }
+
+        journalRecords = 0;
+        unsyncedRecords = 0;
+        undoableRecords = 0;
+        redoableRecords = 0;
+    }
+
+    /**
+     * Writes the first line of the empty journal, which records the generation of the saved file
+     * its records apply to.
+     *
+     * @throws IOException If the journal cannot be written.
+     */
+    private void writeJournalHeader() throws IOException {
+        journal.write(ByteBuffer.wrap((JOURNAL_HEADER + generation + "\n").getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Joins the task numbers into a space-separated String.
+     * Runs of consecutive numbers are written as ranges (FIRST-LAST), so that large deletes stay short.
+     *
+     * @param taskNumbers The task numbers.
+     * @return The task numbers separated by spaces.
+     */
+    private static String joinTaskNumbers(int... taskNumbers) {
+        StringBuilder str = new StringBuilder();
+        for (int i = 0; i < taskNumbers.length; i++) {
+            int first = taskNumbers[i];
+            while (i + 1 < taskNumbers.length && taskNumbers[i + 1] == taskNumbers[i] + 1) {
+                i++;
+            }
+
+            str.append(first);
+            if (taskNumbers[i] != first) {
+                str.append('-').append(taskNumbers[i]);
+            }
+            str.append(' ');
+        }
+
+        return str.toString().trim();
+    }
+
     /**
      * Loads the task list from the saved file.
+     * In journaled mode, the changes recorded in the journal are replayed on top of the saved file.
+     * If the binary format is used but the tasks have only been saved as text so far,
+     * the tasks are read from the text file and saved again in the binary format.
+     *
+     * @return The task list.
+     * @throws FileLoadError If there is an error in reading or obtaining the file, or if the file is damaged.
+     */
+    public List<Task> load() throws FileLoadError {
+        return load(false);
+    }
+
+    /**
+     * Loads the task list from the saved file into a {@link ColumnarTaskList}, which takes a fraction of
+     * the memory of a list of task objects but creates a task object each time a saved task is read.
+     * In journaled mode, the changes recorded in the journal are kept on top of the saved tasks.
+     *
+     * @return The task list.
+     * @throws FileLoadError If there is an error in reading or obtaining the file, or if the file is damaged.
+     */
+    public List<Task> loadColumnar() throws FileLoadError {
+        return load(true);
+    }
+
+    /**
+     * Loads the task list from the saved file, recording the time taken.
      *
+     * @param isColumnar True if the saved tasks are kept in a {@link ColumnarTaskList}.
      * @return The task list.
-     * @throws FileLoadError If there is an error in reading or obtaining the file.
+     * @throws FileLoadError If there is an error in reading or obtaining the file, or if the file is damaged.
      */
-    public ArrayList<Task> load() throws FileLoadError {
+    private List<Task> load(boolean isColumnar) throws FileLoadError {
+        LoadEvent event = new LoadEvent();
+        event.begin();
+        long startTime = System.nanoTime();
+        List<Task> taskList = null;
         try {
+            taskList = loadFully(isColumnar);
+            return taskList;
+        } finally {
+            recordLoad(event, startTime, taskList);
+        }
+    }
 
-            ArrayList<Task> taskList = new ArrayList<>();
+    /**
+     * Loads the task list from the saved file, replaying the journal and migrating the file as needed.
+     *
+     * @param isColumnar True if the saved tasks are kept in a {@link ColumnarTaskList}, with the changes in the
+     *                   journal kept on top of them, instead of in a list of task objects.
+     * @return The task list.
+     * @throws FileLoadError If there is an error in reading or obtaining the file, or if the file is damaged.
+     */
+    private List<Task> loadFully(boolean isColumnar) throws FileLoadError {
+        try {
 
-            for (String task : Files.readAllLines(dukeFile)) {
-                Task t = readTask(task);
-                assert t != null : "File read error.";
-                taskList.add(readTask(task));
+            boolean isMigrating = format == Format.BINARY && Files.notExists(binaryFile);
+            boolean isBinary = format == Format.BINARY && !isMigrating;
+
+            Snapshot snapshot = readSnapshot(isBinary ? binaryFile : dukeFile, isBinary);
+            if (snapshot == null) {
+                throw new IOException("Damaged save file: " + (isBinary ? binaryFile : dukeFile));
+            }
+
+            generation = snapshot.generation;
+            List<Task> taskList = snapshot.tasks;
+
+            if (isColumnar) {
+                taskList = new ColumnarTaskList(taskList);
+            }
+
+            history = new TaskHistory();
+            if (isJournaled && Files.exists(journalFile)) {
+                taskList = isColumnar
+                    ? replayJournal(taskList)
+                    : new ArrayList<>(replayJournal(taskList));
+            }
+
+            if (isMigrating) {
+                saveTasks(taskList);
+            }
+
+            return taskList;
+
+        } catch (IOException ioException) {
+            ioException.printStackTrace();
+            throw new FileLoadError();
+        }
+    }
+
+    /**
+     * Loads the task list lazily from the saved file.
+     * The file is memory-mapped and each task is only read when it is first accessed,
+     * so the time taken does not grow with the number of saved tasks.
+     * The file is not checked against its checksum, as that would read all of it: a damaged task is only found
+     * when it is decoded, while {@link #load()} and {@link #recover()} check the whole file.
+     * Falls back to {@link #load()} when the file is too large to be mapped.
+     *
+     * @return The task list.
+     * @throws FileLoadError If there is an error in reading or obtaining the file, or if the file is damaged.
+     */
+    public List<Task> loadLazily() throws FileLoadError {
+        LoadEvent event = new LoadEvent();
+        event.begin();
+        long startTime = System.nanoTime();
+        List<Task> taskList = null;
+        try {
+            taskList = mapTasks();
+            return taskList;
+        } finally {
+            recordLoad(event, startTime, taskList);
+        }
+    }
+
+    /**
+     * Maps the saved file into a lazily decoded task list, replaying the journal on top of it.
+     *
+     * @return The task list.
+     * @throws FileLoadError If there is an error in reading or obtaining the file, or if the file is damaged.
+     */
+    private List<Task> mapTasks() throws FileLoadError {
+
+        boolean isBinary = format == Format.BINARY && Files.exists(binaryFile);
+        Path savedFile = isBinary ? binaryFile : dukeFile;
+
+        try (FileChannel channel = FileChannel.open(savedFile, StandardOpenOption.READ)) {
+
+            if (channel.size() > Integer.MAX_VALUE || format == Format.BINARY && !isBinary) {
+                return loadFully(false);
+            }
+
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            SnapshotHeader header = SnapshotHeader.read(buffer);
+            if (header == null) {
+                throw new IOException("Damaged save file: " + savedFile);
+            }
+
+            MappedTaskList taskList = isBinary
+                ? MappedTaskList.ofBinary(header.contents(buffer))
+                : MappedTaskList.ofText(header.contents(buffer));
+
+            if (taskList == null) {
+                throw new IOException("Invalid binary save file: " + binaryFile);
+            }
+
+            generation = header.generation;
+            history = new TaskHistory();
+            if (isJournaled && Files.exists(journalFile)) {
+                return replayJournal(taskList);
             }
 
             return taskList;
@@ -97,13 +911,344 @@ public class Storage {
         }
     }
 
+    /**
+     * Recovers the task list after the saved file could not be loaded.
+     * Besides the saved file, a save cut short by a crash may have left a complete new generation in the
+     * temporary file, and the generation before the last save is kept as the previous file. The newest of these
+     * that is intact is loaded, the journal is replayed if it belongs to that generation, and the recovered
+     * task list is saved again.
+     *
+     * @return The task list.
+     * @throws FileLoadError If none of the saved generations is intact.
+     */
+    public ArrayList<Task> recover() throws FileLoadError {
+        LoadEvent event = new LoadEvent();
+        event.begin();
+        long startTime = System.nanoTime();
+        ArrayList<Task> taskList = null;
+        try {
+            taskList = recoverSnapshot();
+            return taskList;
+        } finally {
+            recordLoad(event, startTime, taskList);
+        }
+    }
+
+    /**
+     * Records the time taken to load the task list, and commits the event of the load if it is being recorded.
+     *
+     * @param event     The event of the load.
+     * @param startTime The time the load started, in {@link System#nanoTime()}.
+     * @param taskList  The task list loaded, or null if it could not be loaded.
+     */
+    private void recordLoad(LoadEvent event, long startTime, List<Task> taskList) {
+        metrics.record(Metrics.LOAD, System.nanoTime() - startTime);
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.path = (format == Format.BINARY && Files.exists(binaryFile) ? binaryFile : dukeFile).toString();
+            List<Task> storedTasks = taskList instanceof PersistentTaskList
+                ? ((PersistentTaskList) taskList).getBase()
+                : taskList;
+            event.isLazy = storedTasks instanceof MappedTaskList;
+            event.taskCount = taskList != null ? taskList.size() : 0;
+            event.decodedCount = event.isLazy
+                ? ((MappedTaskList) storedTasks).getDecodedCount()
+                : event.taskCount;
+            event.commit();
+        }
+    }
+
+    /**
+     * Loads the newest intact generation of the saved file, replays the journal and saves the recovered tasks.
+     *
+     * @return The task list.
+     * @throws FileLoadError If none of the saved generations is intact.
+     */
+    private ArrayList<Task> recoverSnapshot() throws FileLoadError {
+        boolean isBinary = format == Format.BINARY && Files.exists(binaryFile);
+        Path savedFile = isBinary ? binaryFile : dukeFile;
+
+        Snapshot recoveredSnapshot = null;
+
+        for (Path file : List.of(savedFile, siblingFile(savedFile, TEMP_SUFFIX),
+            siblingFile(savedFile, PREVIOUS_SUFFIX))) {
+            try {
+
+                if (Files.notExists(file)) {
+                    continue;
+                }
+
+                Snapshot snapshot = readSnapshot(file, isBinary);
+                if (snapshot != null
+                    && (recoveredSnapshot == null || snapshot.generation > recoveredSnapshot.generation)) {
+                    recoveredSnapshot = snapshot;
+                }
+
+            } catch (IOException ioException) {
+                ioException.printStackTrace();
+            }
+        }
+
+        if (recoveredSnapshot == null) {
+            throw new FileLoadError();
+        }
+
+        generation = recoveredSnapshot.generation;
+        ArrayList<Task> recoveredTasks = recoveredSnapshot.tasks;
+        try {
+            history = new TaskHistory();
+            if (isJournaled && Files.exists(journalFile)) {
+                recoveredTasks = new ArrayList<>(replayJournal(recoveredTasks));
+            }
+        } catch (IOException ioException) {
+            ioException.printStackTrace();
+        }
+
+        saveTasks(recoveredTasks);
+        return recoveredTasks;
+    }
+
+    /**
+     * Reads every task in a saved file, checking the file against its checksum.
+     *
+     * @param file     The saved file.
+     * @param isBinary True if the file is in the binary format.
+     * @return The generation and tasks of the file, or null if the file is damaged.
+     * @throws IOException If the file cannot be read.
+     */
+    private static Snapshot readSnapshot(Path file, boolean isBinary) throws IOException {
+
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        SnapshotHeader header = SnapshotHeader.read(buffer);
+        if (header == null || !header.isValid(buffer)) {
+            return null;
+        }
+
+        try {
+            ArrayList<Task> taskList = isBinary
+                ? readBinary(header.contents(buffer))
+                : readText(header.contents(buffer));
+            return new Snapshot(header.generation, taskList);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Reads the tasks saved as text.
+     * Large files are split into chunks of whole lines, which are read in parallel on the common
+     * fork-join pool and appended to the task list in the order they appear in the file.
+     * With a single processor, the file is read in one piece.
+     *
+     * @param contents The contents of the saved file after its header.
+     * @return The task list.
+     * @throws IllegalArgumentException If a task cannot be read.
+     */
+    static ArrayList<Task> readText(ByteBuffer contents) {
+        int limit = contents.limit();
+        if (limit <= TEXT_CHUNK_SIZE || Runtime.getRuntime().availableProcessors() == 1) {
+            return readTextChunk(contents);
+        }
+
+        ArrayList<ByteBuffer> chunks = new ArrayList<>();
+        int chunkStart = 0;
+        while (chunkStart < limit) {
+            int chunkEnd = Math.min(chunkStart + TEXT_CHUNK_SIZE, limit);
+            while (chunkEnd < limit && contents.get(chunkEnd - 1) != '\n') {
+                chunkEnd++;
+            }
+
+            chunks.add(contents.duplicate().position(chunkStart).limit(chunkEnd).slice());
+            chunkStart = chunkEnd;
+        }
+
+        List<ArrayList<Task>> chunkTasks = chunks.parallelStream()
+            .map(Storage::readTextChunk)
+            .collect(Collectors.toList());
+
+        ArrayList<Task> taskList = new ArrayList<>(chunkTasks.stream().mapToInt(List::size).sum());
+        chunkTasks.forEach(taskList::addAll);
+
+        return taskList;
+    }
+
+    /**
+     * Reads the tasks in a chunk of a text save file.
+     *
+     * @param chunk The chunk, made up of whole lines.
+     * @return The tasks in the chunk.
+     * @throws IllegalArgumentException If a task cannot be read.
+     */
+    static ArrayList<Task> readTextChunk(ByteBuffer chunk) {
+
+        ArrayList<Task> taskList = new ArrayList<>();
+        String lines = StandardCharsets.UTF_8.decode(chunk).toString();
+
+        int lineStart = 0;
+        while (lineStart < lines.length()) {
+            int lineEnd = lines.indexOf('\n', lineStart);
+            if (lineEnd < 0) {
+                lineEnd = lines.length();
+            }
+
+            if (lineEnd > lineStart) {
+                String task = lines.substring(lineStart, lineEnd);
+                Task t = readTask(task);
+                if (t == null) {
+                    throw new IllegalArgumentException("Invalid task: " + task);
+                }
+                taskList.add(t);
+            }
+            lineStart = lineEnd + 1;
+        }
+
+        return taskList;
+    }
+
+    /**
+     * Reads the tasks saved in the binary format.
+     *
+     * @param contents The contents of the saved file after its header.
+     * @return The task list.
+     * @throws IllegalArgumentException If the contents are not a valid binary save file.
+     */
+    private static ArrayList<Task> readBinary(ByteBuffer contents) {
+
+        int taskCount = BinaryTaskFormat.readHeader(contents);
+        if (taskCount < 0) {
+            throw new IllegalArgumentException("Invalid binary save file");
+        }
+
+        ArrayList<Task> taskList = new ArrayList<>(Math.min(taskCount, contents.remaining()));
+        for (int i = 0; i < taskCount; i++) {
+            Task t = BinaryTaskFormat.read(contents);
+            if (t == null) {
+                throw new IllegalArgumentException("Invalid task record");
+            }
+            taskList.add(t);
+        }
+
+        return taskList;
+    }
+
+    /**
+     * Replays the journal on top of the tasks read from the saved file.
+     * Each change creates a new version of the list, which are kept in the history so that undo and redo records
+     * can go back to them, and so that the loaded task list can undo the changes replayed.
+     * A record that cannot be read (e.g. one cut short by a crash) ends the replay.
+     * A journal written for an older generation of the saved file is discarded, as its changes
+     * were already saved into the file (e.g. by a crash after saving but before the journal was emptied).
+     *
+     * @param taskList The tasks read from the saved file, which are not changed.
+     * @return The task list after the changes in the journal.
+     * @throws IOException If the journal cannot be read.
+     */
+    private PersistentTaskList replayJournal(List<Task> taskList) throws IOException {
+
+        journalRecords = 0;
+        PersistentTaskList tasks = PersistentTaskList.of(taskList);
+
+        List<String> journalRecordList = Files.readAllLines(journalFile);
+        if (!journalRecordList.isEmpty() && journalRecordList.get(0).startsWith(JOURNAL_HEADER)) {
+            String journalGeneration = journalRecordList.get(0).substring(JOURNAL_HEADER.length());
+            if (!journalGeneration.equals(Long.toString(generation))) {
+                Files.write(journalFile, new byte[0]);
+                return tasks;
+            }
+            journalRecordList = journalRecordList.subList(1, journalRecordList.size());
+        }
+
+        for (String journalRecord : journalRecordList) {
+            try {
+
+                PersistentTaskList changedTasks;
+                if (journalRecord.startsWith(ADD_RECORD)) {
+                    Task t = readTask(journalRecord.substring(ADD_RECORD.length()));
+                    if (t == null) {
+                        break;
+                    }
+                    changedTasks = tasks.append(t);
+                    history.record(tasks, changedTasks, TaskHistory.describeAdd(t));
+                } else if (journalRecord.startsWith(DONE_RECORD)) {
+                    int[] taskNumbers = readTaskNumbers(journalRecord.substring(DONE_RECORD.length()));
+                    changedTasks = tasks;
+                    for (int i = 0; i < taskNumbers.length; i++) {
+                        // Runs of consecutive task numbers are marked together
+                        int first = taskNumbers[i];
+                        while (i + 1 < taskNumbers.length && taskNumbers[i + 1] == taskNumbers[i] + 1) {
+                            i++;
+                        }
+                        changedTasks = changedTasks.markDone(first - 1, taskNumbers[i]);
+                    }
+                    history.record(tasks, changedTasks, TaskHistory.describeDone(taskNumbers.length));
+                } else if (journalRecord.startsWith(DELETE_RECORD)) {
+                    int[] indexes = IntStream.of(readTaskNumbers(journalRecord.substring(DELETE_RECORD.length())))
+                        .map(taskNo -> taskNo - 1)
+                        .sorted()
+                        .distinct()
+                        .toArray();
+                    changedTasks = tasks.removeIndexes(indexes);
+                    history.record(tasks, changedTasks, TaskHistory.describeDelete(indexes.length));
+                } else if (journalRecord.equals(UNDO_RECORD)) {
+                    TaskHistory.Change change = history.undo();
+                    if (change == null) {
+                        break;
+                    }
+                    changedTasks = change.before;
+                } else if (journalRecord.equals(REDO_RECORD)) {
+                    TaskHistory.Change change = history.redo();
+                    if (change == null) {
+                        break;
+                    }
+                    changedTasks = change.after;
+                } else {
+                    break;
+                }
+                tasks = changedTasks;
+
+            } catch (RuntimeException e) {
+                break;
+            }
+
+            journalRecords++;
+        }
+
+        undoableRecords = history.getUndoCount();
+        redoableRecords = history.getRedoCount();
+        return tasks;
+    }
+
+    /**
+     * Reads the task numbers of a journal record.
+     *
+     * @param taskNumbers The space-separated task numbers and ranges of task numbers, such as 1 3-10.
+     * @return The task numbers.
+     * @throws NumberFormatException If the record is not a list of task numbers.
+     */
+    private static int[] readTaskNumbers(String taskNumbers) {
+        return Stream.of(taskNumbers.split(" ")).flatMapToInt(number -> {
+            int dash = number.indexOf('-', 1);
+            if (dash < 0) {
+                return IntStream.of(Integer.parseInt(number));
+            }
+
+            int first = Integer.parseInt(number, 0, dash, 10);
+            int last = Integer.parseInt(number, dash + 1, number.length(), 10);
+            if (first > last) {
+                throw new NumberFormatException("Invalid range: " + number);
+            }
+            return IntStream.rangeClosed(first, last);
+        }).toArray();
+    }
+
     /**
      * Reads the saved tasks in the file.
      *
      * @param task The task to be read
      * @return The task in the proper format, such as ToDo, Event, or Deadline
      */
-    private Task readTask(String task) {
+    static Task readTask(String task) {
 
         // Save format = {T}{1} {task description} {date}
 
@@ -125,9 +1270,13 @@ public class Storage {
             // Fallthrough
 
         case 'D':
-            String endDateString = task.substring(task.length() - isoFormat.length());
-            Deadline deadline = new Deadline(task.substring(3, task.length() - isoFormat.length()).trim(),
-                LocalDateTime.parse(endDateString));
+            int deadlineStart = task.length() - isoFormat.length();
+            LocalDateTime deadlineDate = DateTimeDecoder.decodeDateTime(task, deadlineStart, task.length());
+            if (deadlineDate == null) {
+                return null;
+            }
+
+            Deadline deadline = new Deadline(task.substring(3, deadlineStart).trim(), deadlineDate);
 
             if (isDone) {
                 deadline = deadline.markDone();
@@ -138,19 +1287,21 @@ public class Storage {
 
         case 'E':
 
-            String taskText = task.substring(3,
-                task.length() - (eventDateFormat + " ").length()).trim();
-            String startDateString = task.substring(
-                task.length() - eventDateFormat.length(),
-                task.length() - (isoFormat + " to ").length());
-            endDateString = task.substring(task.length() - isoFormat.length());
+            int startDateStart = task.length() - eventDateFormat.length();
+            int endDateStart = task.length() - isoFormat.length();
+
+            boolean hasEndDate = !task.endsWith(Event.EMPTY_END_DATE);
+            LocalDateTime startDate = DateTimeDecoder.decodeDateTime(task, startDateStart,
+                startDateStart + isoFormat.length());
+            LocalDateTime endDate = hasEndDate
+                ? DateTimeDecoder.decodeDateTime(task, endDateStart, task.length())
+                : null;
 
-            boolean hasEndDate = !endDateString.equals(Event.EMPTY_END_DATE);
+            if (startDate == null || hasEndDate && endDate == null) {
+                return null;
+            }
 
-            Event event = new Event(taskText, LocalDateTime.parse(startDateString),
-                hasEndDate
-                    ? LocalDateTime.parse(endDateString)
-                    : null);
+            Event event = new Event(task.substring(3, startDateStart - 1).trim(), startDate, endDate);
 
             if (isDone) {
                 event = event.markDone();
@@ -164,4 +1315,19 @@ public class Storage {
             // Fallthrough
         }
     }
+
+    /** The tasks read from a generation of the saved file. */
+    private static final class Snapshot {
+
+        /** The generation of the saved file. */
+        final long generation;
+
+        /** The tasks in the file. */
+        final ArrayList<Task> tasks;
+
+        Snapshot(long generation, ArrayList<Task> tasks) {
+            this.generation = generation;
+            this.tasks = tasks;
+        }
+    }
 }
@@ -0,0 +1,141 @@
+package duke;
+
+import java.util.ArrayDeque;
+
+import duke.task.Task;
+
+/**
+ * The changes made to a task list that can be undone and redone, up to a number of changes.
+ * Each change is kept as the versions of the list before and after it, which share all but the few nodes
+ * the change copied, so a change to one task costs memory that grows with the logarithm of the list's size.
+ */
+final class TaskHistory {
+
+    /** The changes that can be undone, the latest first. */
+    private final ArrayDeque<Change> undoChanges = new ArrayDeque<>();
+
+    /** The changes that were undone and can be redone, the latest undone first. */
+    private final ArrayDeque<Change> redoChanges = new ArrayDeque<>();
+
+    /** The number of changes kept, which is every change until a depth is set. */
+    private int depth = Integer.MAX_VALUE;
+
+    /**
+     * Sets the number of changes kept, forgetting the oldest changes past it.
+     *
+     * @param depth The number of changes kept, or 0 to keep none.
+     */
+    void setDepth(int depth) {
+        this.depth = depth;
+        while (undoChanges.size() > depth) {
+            undoChanges.removeLast();
+        }
+        while (redoChanges.size() > depth) {
+            redoChanges.removeLast();
+        }
+    }
+
+    /**
+     * Records a change, forgetting the oldest change if the history is full and the changes that were undone.
+     *
+     * @param before      The version of the list before the change.
+     * @param after       The version of the list after the change.
+     * @param description What the change did, such as "adding [T][✗] read book".
+     */
+    void record(PersistentTaskList before, PersistentTaskList after, String description) {
+        redoChanges.clear();
+        if (depth == 0) {
+            return;
+        }
+
+        undoChanges.push(new Change(before, after, description));
+        if (undoChanges.size() > depth) {
+            undoChanges.removeLast();
+        }
+    }
+
+    /**
+     * Takes the latest change to be undone, after which it can be redone.
+     *
+     * @return The change, or null if there is nothing to undo.
+     */
+    Change undo() {
+        Change change = undoChanges.poll();
+        if (change != null) {
+            redoChanges.push(change);
+        }
+
+        return change;
+    }
+
+    /**
+     * Takes the latest change that was undone to be redone, after which it can be undone again.
+     *
+     * @return The change, or null if there is nothing to redo.
+     */
+    Change redo() {
+        Change change = redoChanges.poll();
+        if (change != null) {
+            undoChanges.push(change);
+        }
+
+        return change;
+    }
+
+    int getUndoCount() {
+        return undoChanges.size();
+    }
+
+    int getRedoCount() {
+        return redoChanges.size();
+    }
+
+    /**
+     * Describes adding a task.
+     *
+     * @param task The task added.
+     * @return The description.
+     */
+    static String describeAdd(Task task) {
+        return "adding " + task;
+    }
+
+    /**
+     * Describes marking tasks as done.
+     *
+     * @param count The number of task numbers marked.
+     * @return The description.
+     */
+    static String describeDone(int count) {
+        return String.format("marking %d %s as done", count, count == 1 ? "task" : "tasks");
+    }
+
+    /**
+     * Describes deleting tasks.
+     *
+     * @param count The number of tasks deleted.
+     * @return The description.
+     */
+    static String describeDelete(int count) {
+        return String.format("deleting %d %s", count, count == 1 ? "task" : "tasks");
+    }
+
+    /** A change to the task list. */
+    static final class Change {
+
+        /** The version of the list before the change. */
+        final PersistentTaskList before;
+
+        /** The version of the list after the change. */
+        final PersistentTaskList after;
+
+        /** What the change did. */
+        final String description;
+
+        Change(PersistentTaskList before, PersistentTaskList after, String description) {
+            this.before = before;
+            this.after = after;
+            this.description = description;
+        }
+    }
+}
@@ -1,12 +1,16 @@
 package duke;
 
+import java.io.PrintWriter;
+import java.io.StringWriter;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
-import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
@@ -16,29 +20,94 @@ import duke.exception.EventInvalidDate;
 import duke.exception.InvalidDateException;
 import duke.exception.InvalidEndDate;
 import duke.exception.InvalidIndexException;
+import duke.exception.InvalidPageException;
+import duke.exception.NoHistoryException;
 import duke.task.Deadline;
 import duke.task.Event;
 import duke.task.Task;
 import duke.task.ToDo;
 
-/** Contains the task list. */
+/**
+ * Contains the task list.
+ * Changes are made one at a time, each creating a new version of the list that shares most of the old one,
+ * so that other threads can list, find and save the tasks of the version they hold without waiting for a change.
+ * The versions before the latest changes are kept, so that the changes can be undone and redone.
+ */
 public class TaskList {
 
-    /** The task list. */
-    private ArrayList<Task> tasks;
+    /** The number of changes that can be undone, unless set otherwise. */
+    public static final int DEFAULT_HISTORY_DEPTH = 100;
+
+    /** The number of deleted tasks listed after a delete command, so that large deletes stay readable. */
+    private static final int LISTED_DELETIONS = 10;
+
+    /** The number of tasks on a page of the list command, if a page is given without a size. */
+    private static final int DEFAULT_PAGE_SIZE = 50;
+
+    /** The date format used when listing the tasks on a date. */
+    private static final DateTimeFormatter LIST_DATE_FORMAT = DateTimeFormatter.ofPattern("dd MMM y");
+
+    /** The ways of matching keywords when finding tasks. */
+    public enum SearchMode {
+        /** Matches tasks containing a word equal to the keyword. */
+        EXACT,
+        /** Matches tasks containing a word starting with the keyword. */
+        PREFIX,
+        /** Matches tasks whose description contains the keyword anywhere. */
+        SUBSTRING
+    }
+
+    /**
+     * The current version of the task list, which is replaced rather than changed.
+     * Readers take the version at the time and read it without locking, while the methods changing the list
+     * and the task counts below are synchronized, so that changes are made one at a time.
+     */
+    private volatile PersistentTaskList tasks;
+
+    /**
+     * A version of the list with its keyword and date indexes, or null if they have not been built yet.
+     * They are built on first use, so that commands such as list and done do not need to read every task of
+     * a lazily loaded list. Changes derive the indexes of the new version from this one where that is cheap,
+     * and readers build them for the current version without locking if it is not the indexed one.
+     */
+    private volatile IndexedVersion indexedVersion;
+
+    /** The number of times each task occurs in the list, used to detect duplicates in constant time. */
+    private final HashMap<Task, Integer> taskCounts = new HashMap<>();
+
+    /** Whether the tasks have been counted, which is done on first use like the indexes. */
+    private boolean isCounted;
+
+    /** The changes that can be undone and redone. */
+    private final TaskHistory history;
 
     /**
      * Constructs a TaskList.
      *
-     * @param taskList The task list containing saved tasks.
+     * @param taskList The task list containing saved tasks, which is read but never changed by the TaskList.
      */
-    public TaskList(ArrayList<Task> taskList) {
-        this.tasks = taskList;
+    public TaskList(List<Task> taskList) {
+        this(taskList, new TaskHistory(), DEFAULT_HISTORY_DEPTH);
     }
 
     /** Constructs a TaskList. */
     public TaskList() {
-        this.tasks = new ArrayList<>();
+        this(List.of());
+    }
+
+    /**
+     * Constructs a TaskList with the changes that led to the saved tasks, such as those replayed from the journal.
+     *
+     * @param taskList     The task list containing saved tasks, which is read but never changed by the TaskList.
+     * @param history      The changes that can be undone and redone.
+     * @param historyDepth The number of changes that can be undone, or 0 to keep no history.
+     */
+    TaskList(List<Task> taskList, TaskHistory history, int historyDepth) {
+        this.tasks = taskList instanceof PersistentTaskList
+            ? (PersistentTaskList) taskList
+            : PersistentTaskList.of(taskList);
+        this.history = history;
+        history.setDepth(historyDepth);
     }
 
     /**
@@ -65,19 +134,83 @@ public class TaskList {
      * @param fullCommand The full command given by the user.
      * @throws InvalidDateException If the command is of the format list [description]
      *                              but the [description] is in not in a valid date format.
+     * @throws InvalidEndDate       If the command is of the format list [date] to [date]
+     *                              and the second date occurs before the first.
+     * @throws InvalidPageException If the page or page size is not a positive number, or the page is past the end.
+     */
+    public String processList(String fullCommand) throws InvalidDateException, InvalidEndDate, InvalidPageException {
+        StringWriter str = new StringWriter();
+        writeList(fullCommand, new PrintWriter(str));
+        return str.toString();
+    }
+
+    /**
+     * Processes the list command, writing the tasks out as they are rendered instead of building the whole list first.
+     * With --page (and --size), only the tasks on that page are read and rendered.
+     *
+     * @param fullCommand The full command given by the user.
+     * @param out         The writer the list is written to.
+     * @throws InvalidDateException If the command is of the format list [description]
+     *                              but the [description] is in not in a valid date format.
+     * @throws InvalidEndDate       If the command is of the format list [date] to [date]
+     *                              and the second date occurs before the first.
+     * @throws InvalidPageException If the page or page size is not a positive number, or the page is past the end.
      */
-    public String processList(String fullCommand) throws InvalidDateException {
+    public void writeList(String fullCommand, PrintWriter out)
+        throws InvalidDateException, InvalidEndDate, InvalidPageException {
 
         assert fullCommand != null;
 
-        if (fullCommand.trim().equalsIgnoreCase("list")) {
-            return printList();
+        String dates = fullCommand.substring("list".length()).trim();
+
+        // Reads the page options (--page PAGE --size SIZE) at the end of the command
+        int page = 0;
+        int pageSize = DEFAULT_PAGE_SIZE;
+        int optionStart = dates.indexOf("--");
+        if (optionStart >= 0) {
+            String[] options = dates.substring(optionStart).split("\\s+");
+            dates = dates.substring(0, optionStart).trim();
+            if (options.length % 2 != 0) {
+                throw new InvalidPageException();
+            }
+
+            try {
+                for (int i = 0; i < options.length; i += 2) {
+                    int value = Integer.parseInt(options[i + 1]);
+                    if (value < 1) {
+                        throw new InvalidPageException();
+                    } else if (options[i].equalsIgnoreCase("--page")) {
+                        page = value;
+                    } else if (options[i].equalsIgnoreCase("--size")) {
+                        pageSize = value;
+                        page = Math.max(page, 1);
+                    } else {
+                        throw new InvalidPageException();
+                    }
+                }
+            } catch (NumberFormatException e) {
+                throw new InvalidPageException();
+            }
         }
 
-        LocalDate date = Parser.getDateTime(fullCommand.substring(
-            "list".length()).trim()).toLocalDate();
+        if (dates.isEmpty()) {
+            writeList(page, pageSize, out);
+            return;
+        }
 
-        return printList(date);
+        if (!dates.contains(" to ")) {
+            writeList(Parser.getDateTime(dates).toLocalDate(), page, pageSize, out);
+            return;
+        }
+
+        LocalDate from = Parser.getDateTime(dates.substring(0, dates.indexOf(" to "))).toLocalDate();
+        LocalDate to = Parser.getDateTime(dates.substring(dates.indexOf(" to ") + " to ".length())).toLocalDate();
+
+        if (to.isBefore(from)) {
+            throw new InvalidEndDate();
+        }
+
+        writeList(from, to, page, pageSize, out);
     }
 
     /**
@@ -86,52 +219,155 @@ public class TaskList {
      * @param tasks The task list to be printed.
      * @return A String representation of the list of tasks.
      */
-    private String printList(ArrayList<Task> tasks) {
-        StringBuilder str = new StringBuilder();
-        IntStream.range(0, tasks.size())
-            .forEach(i -> str.append(String.format("%d. %s\n", i + 1, tasks.get(i))));
+    private String printList(List<Task> tasks) {
+        StringWriter str = new StringWriter();
+        writeTasks(tasks, 0, tasks.size(), new PrintWriter(str));
+        return str.toString();
+    }
 
-        return str.toString().trim();
+    /**
+     * Writes the tasks in a range of the given task list, one per line, each with its number.
+     *
+     * @param tasks The task list.
+     * @param from  The index of the first task to be written.
+     * @param to    The index after the last task to be written.
+     * @param out   The writer the tasks are written to.
+     */
+    private void writeTasks(List<Task> tasks, int from, int to, PrintWriter out) {
+        for (int i = from; i < to; i++) {
+            if (i > from) {
+                out.print('\n');
+            }
+            out.print(i + 1);
+            out.print(". ");
+            out.print(tasks.get(i));
+        }
     }
 
-    /** Prints the tasks in the list. */
-    private String printList() {
+    /**
+     * Writes a page of the given task list, or the whole list if no page is given.
+     *
+     * @param tasks    The task list, which is not empty.
+     * @param page     The number of the page, or 0 for the whole list.
+     * @param pageSize The number of tasks on a page.
+     * @param out      The writer the tasks are written to.
+     * @throws InvalidPageException If the page is past the end of the list.
+     */
+    private void writePage(List<Task> tasks, int page, int pageSize, PrintWriter out) throws InvalidPageException {
+        if (page == 0) {
+            writeTasks(tasks, 0, tasks.size(), out);
+            return;
+        }
 
-        if (tasks.size() == 0) {
-            return "You have nothing on your list!";
+        checkPage(tasks, page, pageSize);
+        int pageCount = (tasks.size() - 1) / pageSize + 1;
+        int from = (page - 1) * pageSize;
+        int to = (int) Math.min((long) from + pageSize, tasks.size());
+        out.print(String.format("Page %d of %d (tasks %d to %d of %d):\n",
+            page, pageCount, from + 1, to, tasks.size()));
+        writeTasks(tasks, from, to, out);
+    }
+
+    /**
+     * Checks that a page is within the given task list, so that nothing is written for a page past the end.
+     *
+     * @param tasks    The task list, which is not empty.
+     * @param page     The number of the page, or 0 for the whole list.
+     * @param pageSize The number of tasks on a page.
+     * @throws InvalidPageException If the page is past the end of the list.
+     */
+    private static void checkPage(List<Task> tasks, int page, int pageSize) throws InvalidPageException {
+        int pageCount = (tasks.size() - 1) / pageSize + 1;
+        if (page > pageCount) {
+            throw new InvalidPageException(pageCount);
         }
+    }
 
-        return printList(tasks);
+    /**
+     * Writes the tasks in the list.
+     *
+     * @param page     The number of the page, or 0 for the whole list.
+     * @param pageSize The number of tasks on a page.
+     * @param out      The writer the tasks are written to.
+     * @throws InvalidPageException If the page is past the end of the list.
+     */
+    private void writeList(int page, int pageSize, PrintWriter out) throws InvalidPageException {
+
+        List<Task> snapshot = tasks;
+        if (snapshot.isEmpty()) {
+            out.print("You have nothing on your list!");
+            return;
+        }
+
+        writePage(snapshot, page, pageSize, out);
     }
 
     /**
      * An overload of the list command.
-     * Prints the tasks occurring on the same date in the list.
+     * Writes the tasks occurring on the same date in the list.
      *
-     * @param date The date given by the user.
+     * @param date     The date given by the user.
+     * @param page     The number of the page, or 0 for every task on the date.
+     * @param pageSize The number of tasks on a page.
+     * @param out      The writer the tasks are written to.
+     * @throws InvalidPageException If the page is past the end of the tasks on the date.
      */
-    private String printList(LocalDate date) {
+    private void writeList(LocalDate date, int page, int pageSize, PrintWriter out) throws InvalidPageException {
 
         assert date != null;
 
-        DateTimeFormatter dateFormat = DateTimeFormatter.ofPattern("dd MMM y");
-        StringBuilder str = new StringBuilder();
-
-        int i = 1;
-        for (Task task: tasks) {
-            if (task.getDate().equals(date)) {
-                str.append(String.format("%d. %s\n", i + 1, task));
-                i++;
-            }
+        ArrayList<Task> foundTasks = findTasks(date, date);
+        if (foundTasks.isEmpty()) {
+            out.print("You have nothing to do on " + date.format(LIST_DATE_FORMAT) + ".");
+            return;
         }
 
-        if (str.length() == 0) {
-            return "You have nothing to do on "
-                + date.format(dateFormat) + ".";
+        checkPage(foundTasks, page, pageSize);
+        out.print(String.format("Here's your list on %s:\n", date.format(LIST_DATE_FORMAT)));
+        writePage(foundTasks, page, pageSize, out);
+    }
+
+    /**
+     * An overload of the list command.
+     * Writes the tasks occurring between the given dates in the list.
+     *
+     * @param from     The first date given by the user.
+     * @param to       The last date given by the user.
+     * @param page     The number of the page, or 0 for every task between the dates.
+     * @param pageSize The number of tasks on a page.
+     * @param out      The writer the tasks are written to.
+     * @throws InvalidPageException If the page is past the end of the tasks between the dates.
+     */
+    private void writeList(LocalDate from, LocalDate to, int page, int pageSize, PrintWriter out)
+        throws InvalidPageException {
+
+        assert from != null && to != null;
+
+        ArrayList<Task> foundTasks = findTasks(from, to);
+        if (foundTasks.isEmpty()) {
+            out.print(String.format("You have nothing to do from %s to %s.",
+                from.format(LIST_DATE_FORMAT), to.format(LIST_DATE_FORMAT)));
+            return;
         }
 
-        return String.format("Here's your list on %s:\n", date.format(dateFormat))
-            + str.toString().trim();
+        checkPage(foundTasks, page, pageSize);
+        out.print(String.format("Here's your list from %s to %s:\n",
+            from.format(LIST_DATE_FORMAT), to.format(LIST_DATE_FORMAT)));
+        writePage(foundTasks, page, pageSize, out);
+    }
+
+    /**
+     * Finds the tasks occurring between the given dates using the date index.
+     *
+     * @param from The first date, inclusive.
+     * @param to   The last date, inclusive.
+     * @return A list of the tasks, in the order they appear on the list.
+     */
+    public ArrayList<Task> findTasks(LocalDate from, LocalDate to) {
+        IndexedVersion indexed = getIndexedVersion();
+        BitSet found = new BitSet();
+        indexed.dates.find(from, to, found);
+        return indexed.getTasks(found);
     }
 
     /**
@@ -140,16 +376,16 @@ public class TaskList {
      * @param task The description of the ToDo task.
      * @throws DuplicateTaskException If an existing ToDo task is already on the list.
      */
-    public void addToDo(String task) throws DuplicateTaskException {
+    public synchronized void addToDo(String task) throws DuplicateTaskException {
 
         assert task != null;
 
         Task toDo = new ToDo(task.trim());
-        if (tasks.contains(toDo)) {
+        if (hasTask(toDo)) {
             throw new DuplicateTaskException();
         }
 
-        tasks.add(toDo);
+        addTask(toDo);
     }
 
     /**
@@ -160,7 +396,7 @@ public class TaskList {
      *                                and date is already on the list.
      * @throws EventInvalidDate       If the date of the event given is not in a valid date time format.
      */
-    public void addEvent(String input) throws DuplicateTaskException, EventInvalidDate, InvalidEndDate {
+    public synchronized void addEvent(String input) throws DuplicateTaskException, EventInvalidDate, InvalidEndDate {
 
         assert input != null;
 
@@ -178,7 +414,11 @@ public class TaskList {
                 String endDateString = input.substring(input.indexOf("to ") + "to ".length());
 
                 if (endDateString.length() <= timeFormat.length()) {
-                    endDate = LocalDateTime.of(date.toLocalDate(), LocalTime.parse(endDateString));
+                    LocalTime endTime = DateTimeDecoder.decodeTime(endDateString, 0, endDateString.length());
+                    if (endTime == null) {
+                        throw new InvalidDateException();
+                    }
+                    endDate = LocalDateTime.of(date.toLocalDate(), endTime);
                 } else {
                     endDate = Parser.getDateTime(endDateString);
                 }
@@ -192,11 +432,11 @@ public class TaskList {
                 ? new Event(task, date, endDate)
                 : new Event(task, date);
 
-            if (tasks.contains(event)) {
+            if (hasTask(event)) {
                 throw new DuplicateTaskException();
             }
 
-            tasks.add(event);
+            addTask(event);
 
         } catch (StringIndexOutOfBoundsException | InvalidDateException e) {
             throw new EventInvalidDate();
@@ -212,7 +452,7 @@ public class TaskList {
      *                                and date is already on the list.
      * @throws DeadlineInvalidDate    If the date of the deadline given is not in a valid date time format.
      */
-    public void addDeadline(String input) throws DuplicateTaskException, DeadlineInvalidDate {
+    public synchronized void addDeadline(String input) throws DuplicateTaskException, DeadlineInvalidDate {
 
         assert input != null;
 
@@ -224,10 +464,10 @@ public class TaskList {
 
             Deadline deadline = new Deadline(task, date);
 
-            if (tasks.contains(deadline)) {
+            if (hasTask(deadline)) {
                 throw new DuplicateTaskException();
             } else {
-                tasks.add(deadline);
+                addTask(deadline);
             }
 
         } catch (StringIndexOutOfBoundsException | InvalidDateException e) {
@@ -235,92 +475,452 @@ public class TaskList {
         }
     }
 
+    /**
+     * Checks if an equal task is already on the list.
+     *
+     * @param task The task to look for.
+     * @return True if the list contains a task equal to the given task.
+     */
+    private boolean hasTask(Task task) {
+        ensureCounted();
+        return taskCounts.containsKey(task);
+    }
+
+    /**
+     * Appends a task to the list, counting and indexing it.
+     *
+     * @param task The task to be added.
+     */
+    private void addTask(Task task) {
+        ensureCounted();
+        PersistentTaskList oldTasks = tasks;
+        commit(tasks.append(task), TaskHistory.describeAdd(task));
+        countTask(task, 1);
+        publishAppended(oldTasks);
+    }
+
+    /**
+     * Makes a new version of the list the current one, recording the change so that it can be undone.
+     *
+     * @param newTasks    The new version.
+     * @param description What the change did.
+     */
+    private void commit(PersistentTaskList newTasks, String description) {
+        history.record(tasks, newTasks, description);
+        tasks = newTasks;
+    }
+
+    /** Counts the tasks, if that has not been done yet. */
+    private void ensureCounted() {
+        if (isCounted) {
+            return;
+        }
+
+        tasks.forEach(task -> countTask(task, 1));
+        isCounted = true;
+    }
+
+    /** Drops the task counts, so that the tasks are counted again on first use. */
+    private void clearCounts() {
+        taskCounts.clear();
+        isCounted = false;
+    }
+
+    /**
+     * Changes the number of times a task occurs in the list.
+     *
+     * @param task   The task.
+     * @param change The number of times it was added, or minus the number of times it was removed.
+     */
+    private void countTask(Task task, int change) {
+        taskCounts.merge(task, change, (count, c) -> count + c == 0 ? null : count + c);
+    }
+
+    /**
+     * Obtains the current version of the list with its indexes, building them if they are not up to date.
+     * Building them needs no lock, as the version is never changed, and if two readers build them at once,
+     * both get the same indexes.
+     *
+     * @return The indexed version.
+     */
+    private IndexedVersion getIndexedVersion() {
+        PersistentTaskList current = tasks;
+        IndexedVersion indexed = indexedVersion;
+        if (indexed == null || indexed.tasks != current) {
+            indexed = IndexedVersion.of(current);
+            indexedVersion = indexed;
+        }
+
+        return indexed;
+    }
+
+    /**
+     * Publishes the indexes of the current version, which has the same tasks as the given version
+     * apart from their done marks, so the indexes are shared.
+     *
+     * @param oldTasks The version the current one was made from.
+     */
+    private void publishMarked(PersistentTaskList oldTasks) {
+        IndexedVersion indexed = indexedVersion;
+        if (indexed != null && indexed.tasks == oldTasks) {
+            indexedVersion = new IndexedVersion(tasks, indexed.keywords, indexed.dates);
+        }
+    }
+
+    /**
+     * Publishes the indexes of the current version, which is the given version with a task appended.
+     *
+     * @param oldTasks The version the current one was made from.
+     */
+    private void publishAppended(PersistentTaskList oldTasks) {
+        IndexedVersion indexed = indexedVersion;
+        if (indexed != null && indexed.tasks == oldTasks) {
+            int position = oldTasks.size();
+            Task task = tasks.get(position);
+            indexedVersion = new IndexedVersion(tasks, indexed.keywords.add(position, task),
+                indexed.dates.add(position, task));
+        }
+    }
+
+    /**
+     * Publishes the indexes of the current version, which is the given version without its last task.
+     *
+     * @param oldTasks The version the current one was made from.
+     */
+    private void publishRemovedLast(PersistentTaskList oldTasks) {
+        IndexedVersion indexed = indexedVersion;
+        if (indexed != null && indexed.tasks == oldTasks) {
+            int position = tasks.size();
+            Task task = oldTasks.get(position);
+            indexedVersion = new IndexedVersion(tasks, indexed.keywords.removeLast(position, task),
+                indexed.dates.removeLast(position, task));
+        }
+    }
+
     /**
      * Marks the task with the given index as done.
      *
      * @param taskNumbers The indexes of the tasks to be marked.
      * @throws InvalidIndexException If the taskNumbers < 0 or larger than the size of the taskList.
      */
-    public String markDone(Integer... taskNumbers) throws InvalidIndexException {
-        try {
+    public synchronized String markDone(int... taskNumbers) throws InvalidIndexException {
+        int size = tasks.size();
+        if (IntStream.of(taskNumbers).anyMatch(taskNo -> taskNo < 1 || taskNo > size)) {
+            throw new InvalidIndexException(size);
+        }
 
-            StringBuilder str = new StringBuilder();
-            str.append("Nice! I've marked these tasks as done:\n");
+        PersistentTaskList oldTasks = tasks;
+        PersistentTaskList marked = tasks;
+        for (int taskNo : taskNumbers) {
+            marked = marked.markDone(taskNo - 1, taskNo);
+        }
+        commit(marked, TaskHistory.describeDone(taskNumbers.length));
+        publishMarked(oldTasks);
 
-            Stream.of(taskNumbers).forEach(taskNo -> {
-                tasks.set(taskNo - 1, tasks.get(taskNo - 1).markDone());
-                str.append(String.format("%s\n", tasks.get(taskNo - 1)));
-            });
+        StringBuilder str = new StringBuilder();
+        str.append("Nice! I've marked these tasks as done:\n");
+        for (int taskNo : taskNumbers) {
+            str.append(String.format("%s\n", marked.get(taskNo - 1)));
+        }
 
-            return str.toString().trim();
+        return str.toString().trim();
+    }
 
-        } catch (IndexOutOfBoundsException e) {
+    /**
+     * Marks the tasks with numbers in the given range as done.
+     * Only the done bits of the leaves in the range are set, so the tasks are neither read nor listed.
+     *
+     * @param first The number of the first task to be marked.
+     * @param last  The number of the last task to be marked, inclusive.
+     * @throws InvalidIndexException If the range is empty or not within the task list.
+     */
+    public synchronized String markDoneRange(int first, int last) throws InvalidIndexException {
+        if (first < 1 || last > tasks.size() || first > last) {
             throw new InvalidIndexException(tasks.size());
         }
+
+        PersistentTaskList oldTasks = tasks;
+        commit(tasks.markDone(first - 1, last), TaskHistory.describeDone(last - first + 1));
+        publishMarked(oldTasks);
+
+        return String.format("Nice! I've marked tasks %d to %d as done.", first, last);
+    }
+
+    /** Marks every task on the list as done. */
+    public synchronized String markAllDone() {
+        if (tasks.isEmpty()) {
+            return "You have nothing on your list!";
+        }
+
+        PersistentTaskList oldTasks = tasks;
+        commit(tasks.markDone(0, tasks.size()), TaskHistory.describeDone(tasks.size()));
+        publishMarked(oldTasks);
+
+        return String.format("Nice! I've marked all %d %s as done.",
+            tasks.size(), tasks.size() == 1 ? "task" : "tasks");
     }
 
     /**
-     * Deletes the task with the given index.
+     * Deletes the tasks with the given numbers.
+     * The numbers are sorted and duplicates dropped, after which the new version of the list is built
+     * in a single pass. Its indexes are built again on first use, as the positions of the remaining tasks change.
      *
-     * @param taskNumbers The numbers of the tasks to be deleted.
+     * @param taskNumbers The numbers of the tasks to be deleted, in any order.
      * @throws InvalidIndexException If the taskNumbers < 1 or larger than the size of the taskList.
      */
-    public String deleteTasks(Integer... taskNumbers) throws InvalidIndexException {
-        try {
+    public synchronized String deleteTasks(int... taskNumbers) throws InvalidIndexException {
+        int[] indexes = getSortedIndexes(taskNumbers);
+        if (indexes.length == 0) {
+            return "There are no tasks to delete.";
+        }
 
-            // Check if all taskNumbers within index
-            boolean hasInvalidIndex = Stream.of(taskNumbers).anyMatch(
-                taskNo -> taskNo < 1 || taskNo > tasks.size());
+        // Store the first deleted tasks (to print)
+        ArrayList<Task> deletedTasks = new ArrayList<>();
+        for (int i = 0; i < indexes.length && i < LISTED_DELETIONS; i++) {
+            deletedTasks.add(tasks.get(indexes[i]));
+        }
 
-            if (hasInvalidIndex) {
-                throw new InvalidIndexException(tasks.size());
+        // Delete the tasks, leaving the counts to be made later if they have not been made yet.
+        // When most of the list is deleted, counting the remaining tasks again is cheaper.
+        if (isCounted && indexes.length > 2 * (tasks.size() - indexes.length)) {
+            clearCounts();
+        } else if (isCounted) {
+            for (int index : indexes) {
+                countTask(tasks.get(index), -1);
             }
+        }
+        commit(tasks.removeIndexes(indexes), TaskHistory.describeDelete(indexes.length));
 
-            // Store deleted tasks (to print)
-            ArrayList<Task> deletedTasks = Stream.of(taskNumbers)
-                .map(taskNo -> tasks.get(taskNo - 1))
-                .collect(Collectors.toCollection(ArrayList::new));
+        // List deleted tasks
+        StringBuilder str = new StringBuilder();
+        str.append("Noted. I've removed these tasks:\n");
+        deletedTasks.forEach(deleted -> str.append(String.format("%s\n", deleted)));
+        if (indexes.length > deletedTasks.size()) {
+            str.append(String.format("...and %d more.", indexes.length - deletedTasks.size()));
+        }
 
-            // Delete the tasks
-            Stream.of(taskNumbers).forEach(taskNo -> tasks.set(taskNo - 1, null));
-            tasks.removeIf(Objects::isNull);
+        return str.toString().trim();
+    }
 
-            // List deleted tasks
-            StringBuilder str = new StringBuilder();
-            str.append("Noted. I've removed these tasks:\n");
-            deletedTasks.forEach(deleted -> str.append(String.format("%s\n", deleted)));
+    /**
+     * Undoes the latest change that has not been undone, going back to the version of the list before it.
+     *
+     * @return What was undone.
+     * @throws NoHistoryException If there is no change to undo.
+     */
+    public synchronized String undo() throws NoHistoryException {
+        TaskHistory.Change change = history.undo();
+        if (change == null) {
+            throw new NoHistoryException("undo");
+        }
+
+        restore(change, true);
+        return String.format("I've undone %s.\nYou have %d %s on your list.",
+            change.description, tasks.size(), tasks.size() == 1 ? "task" : "tasks");
+    }
+
+    /**
+     * Redoes the latest change that was undone, going back to the version of the list after it.
+     *
+     * @return What was redone.
+     * @throws NoHistoryException If there is no undone change to redo.
+     */
+    public synchronized String redo() throws NoHistoryException {
+        TaskHistory.Change change = history.redo();
+        if (change == null) {
+            throw new NoHistoryException("redo");
+        }
+
+        restore(change, false);
+        return String.format("I've redone %s.\nYou have %d %s on your list.",
+            change.description, tasks.size(), tasks.size() == 1 ? "task" : "tasks");
+    }
+
+    /**
+     * Makes the version of the list before or after a change the current one, updating the counts and indexes.
+     * Marking tasks as done does not change them, and undoing or redoing an added task only uncounts and
+     * unindexes or counts and indexes that task, while undoing or redoing deleted tasks leaves them to be
+     * built again.
+     *
+     * @param change   The change, whose version of the list after it has the same tasks as the current version
+     *                 if it is undone, or whose version before it does if it is redone.
+     * @param isUndone True if the change is undone, or false if it is redone.
+     */
+    private void restore(TaskHistory.Change change, boolean isUndone) {
+        boolean isAdd = change.after.size() > change.before.size();
+        boolean isDelete = change.after.size() < change.before.size();
 
-            return str.toString().trim();
+        PersistentTaskList oldTasks = tasks;
+        tasks = isUndone ? change.before : change.after;
 
-        } catch (IndexOutOfBoundsException e) {
+        if (isAdd && isUndone) {
+            if (isCounted) {
+                countTask(oldTasks.get(tasks.size()), -1);
+            }
+            publishRemovedLast(oldTasks);
+        } else if (isAdd) {
+            if (isCounted) {
+                countTask(tasks.get(oldTasks.size()), 1);
+            }
+            publishAppended(oldTasks);
+        } else if (isDelete) {
+            clearCounts();
+        } else {
+            publishMarked(oldTasks);
+        }
+    }
+
+    /**
+     * Obtains the numbers of the tasks that are done.
+     *
+     * @return The task numbers, in order.
+     */
+    public int[] getDoneTaskNumbers() {
+        PersistentTaskList snapshot = tasks;
+        return IntStream.range(0, snapshot.size()).filter(snapshot::isDone).map(index -> index + 1).toArray();
+    }
+
+    /**
+     * Obtains the numbers of the tasks with a date before the given date, using the date index.
+     *
+     * @param date The date, exclusive.
+     * @return The task numbers, in order.
+     */
+    public int[] getTaskNumbersBefore(LocalDate date) {
+        BitSet found = new BitSet();
+        getIndexedVersion().dates.findBefore(date, found);
+        return found.stream().map(index -> index + 1).toArray();
+    }
+
+    /**
+     * Expands ranges of task numbers into the numbers in them, after checking the ranges against the list.
+     * The ranges are merged first, so no more numbers are made than there are tasks on the list.
+     *
+     * @param firsts The numbers of the first tasks of the ranges.
+     * @param lasts  The numbers of the last tasks of the ranges, inclusive.
+     * @return The task numbers, in order and without duplicates.
+     * @throws InvalidIndexException If a range is empty or not within the task list.
+     */
+    public int[] getTaskNumbers(int[] firsts, int[] lasts) throws InvalidIndexException {
+        int size = tasks.size();
+
+        // Sorts the ranges by their first task numbers, which are in the upper half of each long
+        long[] ranges = new long[firsts.length];
+        for (int i = 0; i < ranges.length; i++) {
+            if (firsts[i] < 1 || lasts[i] > size || firsts[i] > lasts[i]) {
+                throw new InvalidIndexException(size);
+            }
+            ranges[i] = (long) firsts[i] << 32 | lasts[i];
+        }
+        Arrays.sort(ranges);
+
+        // Counts the numbers not in an earlier range, then lists them
+        int count = 0;
+        int next = 1;
+        for (long range : ranges) {
+            count += Math.max((int) range - Math.max((int) (range >>> 32), next) + 1, 0);
+            next = Math.max((int) range + 1, next);
+        }
+
+        int[] taskNumbers = new int[count];
+        count = 0;
+        next = 1;
+        for (long range : ranges) {
+            for (int taskNo = Math.max((int) (range >>> 32), next); taskNo <= (int) range; taskNo++) {
+                taskNumbers[count++] = taskNo;
+            }
+            next = Math.max((int) range + 1, next);
+        }
+
+        return taskNumbers;
+    }
+
+    /**
+     * Converts task numbers into sorted indexes without duplicates.
+     *
+     * @param taskNumbers The task numbers, in any order.
+     * @return The indexes of the tasks in ascending order.
+     * @throws InvalidIndexException If any task number is not on the list.
+     */
+    private int[] getSortedIndexes(int... taskNumbers) throws InvalidIndexException {
+        int[] indexes = taskNumbers.clone();
+        Arrays.sort(indexes);
+
+        int count = 0;
+        for (int taskNo : indexes) {
+            if (count == 0 || indexes[count - 1] != taskNo - 1) {
+                indexes[count++] = taskNo - 1;
+            }
+        }
+
+        if (count > 0 && (indexes[0] < 0 || indexes[count - 1] >= tasks.size())) {
             throw new InvalidIndexException(tasks.size());
         }
+
+        return Arrays.copyOf(indexes, count);
     }
 
     /**
-     * Finds tasks that contains any of the given keywords.
+     * Finds tasks containing a word that starts with any of the given keywords.
      *
      * @param keywords The keywords to search for in tasks.
      * @return A list of tasks with the given keywords.
      */
     public ArrayList<Task> findTasks(String... keywords) {
+        return findTasks(SearchMode.PREFIX, keywords);
+    }
+
+    /**
+     * Finds tasks that match any of the given keywords, ignoring case.
+     * Exact and prefix searches look the keywords up in the keyword index of the current version,
+     * while substring searches go through every task of it. Neither waits for a change.
+     *
+     * @param mode     The way of matching the keywords.
+     * @param keywords The keywords to search for in tasks.
+     * @return A list of tasks with the given keywords, in the order they appear on the list.
+     */
+    public ArrayList<Task> findTasks(SearchMode mode, String... keywords) {
+
+        String[] normalizedKeywords = Stream.of(keywords)
+            .map(keyword -> keyword.trim().toLowerCase())
+            .filter(keyword -> !keyword.isEmpty())
+            .toArray(String[]::new);
+
+        if (mode == SearchMode.SUBSTRING) {
+            return findSubstrings(normalizedKeywords);
+        }
+
+        IndexedVersion indexed = getIndexedVersion();
+        BitSet found = new BitSet();
+        for (String keyword : normalizedKeywords) {
+            if (mode == SearchMode.EXACT) {
+                indexed.keywords.findWord(keyword, found);
+            } else {
+                indexed.keywords.findPrefix(keyword, found);
+            }
+        }
+
+        return indexed.getTasks(found);
+    }
+
+    /**
+     * Finds tasks whose description contains any of the given keywords.
+     *
+     * @param keywords The trimmed, lowercase keywords.
+     * @return A list of tasks with the given keywords.
+     */
+    private ArrayList<Task> findSubstrings(String... keywords) {
 
         ArrayList<Task> foundTasks = new ArrayList<>();
 
-        boolean containsKeyword;
         for (Task task : tasks) {
-
-            containsKeyword = false;
-            for (String keyword: keywords) {
-                if (task.getTask().contains(keyword.trim().toLowerCase())) {
-                    containsKeyword = true;
+            String description = task.getTask().toLowerCase();
+            for (String keyword : keywords) {
+                if (description.contains(keyword)) {
+                    foundTasks.add(task);
                     break;
                 }
             }
-
-            if (containsKeyword) {
-                foundTasks.add(task);
-            }
         }
 
         return foundTasks;
@@ -333,7 +933,18 @@ public class TaskList {
      * @return A String representation of the matching tasks.
      */
     public String printTasks(String... keywords) {
-        ArrayList<Task> foundTasks = findTasks(keywords);
+        return printTasks(SearchMode.PREFIX, keywords);
+    }
+
+    /**
+     * Prints the list of tasks matching the given keyword(s).
+     *
+     * @param mode     The way of matching the keywords.
+     * @param keywords The keywords to search for in tasks.
+     * @return A String representation of the matching tasks.
+     */
+    public String printTasks(SearchMode mode, String... keywords) {
+        ArrayList<Task> foundTasks = findTasks(mode, keywords);
         if (foundTasks.size() == 0) {
             return "You have nothing on your list with the given keyword.";
         }
@@ -343,12 +954,52 @@ public class TaskList {
 
     /** Prints the recently added task. */
     public String printNewTask() {
+        List<Task> snapshot = tasks;
         return String.format("Got it. I've added this task:\n %s\n"
             + "You have %d %s on your list.",
-            tasks.get(tasks.size() - 1), tasks.size(), tasks.size() == 1 ? "task" : "tasks");
+            snapshot.get(snapshot.size() - 1), snapshot.size(), snapshot.size() == 1 ? "task" : "tasks");
     }
 
-    public ArrayList<Task> getTasks() {
+    /**
+     * Obtains the current version of the task list, which stays the same while the task list is changed.
+     *
+     * @return The tasks.
+     */
+    public List<Task> getTasks() {
         return tasks;
     }
+
+    /** A version of the task list with the keyword and date indexes of its tasks, none of which are changed. */
+    private static final class IndexedVersion {
+
+        final PersistentTaskList tasks;
+
+        /** The index of the words in the task descriptions, used by the find command. */
+        final KeywordIndex keywords;
+
+        /** The index of the dates of the tasks, used by the list command. */
+        final DateIndex dates;
+
+        IndexedVersion(PersistentTaskList tasks, KeywordIndex keywords, DateIndex dates) {
+            this.tasks = tasks;
+            this.keywords = keywords;
+            this.dates = dates;
+        }
+
+        static IndexedVersion of(PersistentTaskList tasks) {
+            return new IndexedVersion(tasks, KeywordIndex.of(tasks), DateIndex.of(tasks));
+        }
+
+        /**
+         * Obtains the tasks at the given positions of this version.
+         *
+         * @param positions The positions of the tasks.
+         * @return A list of the tasks, in the order they appear on the list.
+         */
+        ArrayList<Task> getTasks(BitSet positions) {
+            ArrayList<Task> foundTasks = new ArrayList<>();
+            positions.stream().forEach(position -> foundTasks.add(tasks.get(position)));
+            return foundTasks;
+        }
+    }
 }
@@ -0,0 +1,55 @@
+package duke;
+
+import java.util.BitSet;
+
+/**
+ * An immutable list of task positions in an index, latest added first.
+ * Adding a position creates a new list that shares the old one, so versions of an index can share their lists.
+ */
+final class TaskPositions {
+
+    /** The position of a task in the list, counting from 0. */
+    final int position;
+
+    /** The positions added before it, or null if there are none. */
+    final TaskPositions next;
+
+    private TaskPositions(int position, TaskPositions next) {
+        this.position = position;
+        this.next = next;
+    }
+
+    /**
+     * Returns the list with a position added in front of it.
+     *
+     * @param positions The list, or null for the empty list.
+     * @param position  The position to add.
+     * @return The new list.
+     */
+    static TaskPositions push(TaskPositions positions, int position) {
+        return new TaskPositions(position, positions);
+    }
+
+    /**
+     * Returns the list without the given position, which must have been the last one added if it is in the list.
+     *
+     * @param positions The list, or null for the empty list.
+     * @param position  The position to remove.
+     * @return The list without the position, or null if it is empty.
+     */
+    static TaskPositions pop(TaskPositions positions, int position) {
+        return positions != null && positions.position == position ? positions.next : positions;
+    }
+
+    /**
+     * Adds the positions in a list to a set.
+     *
+     * @param positions The list, or null for the empty list.
+     * @param found     The set to add the positions to.
+     */
+    static void addTo(TaskPositions positions, BitSet found) {
+        for (TaskPositions p = positions; p != null; p = p.next) {
+            found.set(p.position);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package duke;
 
+import java.io.PrintWriter;
+import java.io.Writer;
 import java.util.Scanner;
 
 /** Deals with interaction with the user. */
@@ -19,8 +21,14 @@ public class Ui {
         + "'  '--'\\|  ||  | --' |  |  |  ||  `---.|  |\\  \\\n"
         + " `-----'`--'`--'     `--'  `--'`------'`--' '--'";
 
-    /** The scanner used to read user inputs. */
-    private final Scanner sc = new Scanner(System.in);
+    /** The scanner used to read user inputs, created on first use so that a bot without a console never reads it. */
+    private Scanner sc;
+
+    /** The buffer of the response not yet printed, which is printed once it is full so long lists are streamed. */
+    private final ResponseBuffer buffer = new ResponseBuffer();
+
+    /** The writer that responses are streamed to. */
+    private final PrintWriter out = new PrintWriter(buffer);
 
     /** Prints the logo of the Duke bot. */
     private void printLogo() {
@@ -47,7 +55,9 @@ public class Ui {
      * @return The goodbye string.
      */
     public String bye() {
-        sc.close();
+        if (sc != null) {
+            sc.close();
+        }
         return String.format("Bye! Thank you for chatting with %s!\n"
             + "Hope to see you again soon!", botName);
     }
@@ -63,6 +73,9 @@ public class Ui {
      * @return The user input.
      */
     public String readCommand() {
+        if (sc == null) {
+            sc = new Scanner(System.in);
+        }
         return sc.nextLine();
     }
 
@@ -76,6 +89,11 @@ public class Ui {
         System.out.println("Unable to load the data. Creating new file...");
     }
 
+    /** Prints the message shown when the data is recovered from an earlier save. */
+    public void showRecoveredData() {
+        System.out.println("The data file was damaged. Recovered the most recent intact save.");
+    }
+
     /**
      * Prints the message given.
      *
@@ -84,4 +102,65 @@ public class Ui {
     public void printMessage(String msg) {
         System.out.println(msg);
     }
+
+    /**
+     * Obtains the writer that a response is streamed to.
+     * The response must be ended with {@link #endResponse()}.
+     *
+     * @return The writer.
+     */
+    public PrintWriter getResponseWriter() {
+        return out;
+    }
+
+    /** Ends the response written to the response writer and flushes it to the console. */
+    public void endResponse() {
+        out.println();
+        out.flush();
+    }
+
+    /** Discards the part of the response written to the response writer that has not been printed yet. */
+    public void discardResponse() {
+        buffer.discard();
+    }
+
+    /** A buffer of characters that prints them to the console when it is full or flushed. */
+    private static class ResponseBuffer extends Writer {
+
+        /** The number of characters buffered before they are printed. */
+        private static final int CAPACITY = 8192;
+
+        /** The characters not printed yet. */
+        private final StringBuilder chars = new StringBuilder();
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            chars.append(cbuf, off, len);
+            if (chars.length() >= CAPACITY) {
+                print();
+            }
+        }
+
+        @Override
+        public void flush() {
+            print();
+            System.out.flush();
+        }
+
+        @Override
+        public void close() {
+            flush();
+        }
+
+        /** Discards the characters not printed yet. */
+        void discard() {
+            chars.setLength(0);
+        }
+
+        /** Prints the characters not printed yet. */
+        private void print() {
+            System.out.print(chars);
+            chars.setLength(0);
+        }
+    }
 }
@@ -22,7 +22,7 @@ public abstract class AddTaskCommand extends Command {
     @Override
     public String execute(TaskList taskList, Ui ui, Storage storage) throws DukeException {
         addTask(taskList, input);
-        storage.saveTasks(taskList.getTasks());
+        storage.saveAddedTask(taskList.getTasks());
         return taskList.printNewTask();
     }
 
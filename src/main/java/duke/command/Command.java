@@ -1,5 +1,7 @@
 package duke.command;
 
+import java.io.PrintWriter;
+
 import duke.Storage;
 import duke.TaskList;
 import duke.Ui;
@@ -21,6 +23,21 @@ public abstract class Command {
      */
     public abstract String execute(TaskList taskList, Ui ui, Storage storage) throws DukeException;
 
+    /**
+     * Executes the command, writing the response to the given writer.
+     * Commands with long responses override this to write the response as it is produced,
+     * instead of building all of it first.
+     *
+     * @param taskList The task list that stores and modifies the list of saved tasks.
+     * @param ui       The UI of the bot.
+     * @param storage  The storage system of the bot.
+     * @param out      The writer the response is written to.
+     * @throws DukeException If there is something wrong with the task input.
+     */
+    public void execute(TaskList taskList, Ui ui, Storage storage, PrintWriter out) throws DukeException {
+        out.print(execute(taskList, ui, storage));
+    }
+
     /**
      * Returns the type of command.
      *
@@ -10,16 +10,30 @@ import duke.exception.DukeException;
 /** A command to delete a task. */
 public class DeleteCommand extends Command {
 
-    /** The task number to be deleted. */
-    private Integer[] taskNumbers;
+    /** The numbers of the first tasks of the ranges to be deleted. */
+    private final int[] firsts;
+
+    /** The numbers of the last tasks of the ranges to be deleted, inclusive. */
+    private final int[] lasts;
 
     /**
      * Constructs a DeleteCommand.
      *
-     * @param taskNumbers The task number to be deleted.
+     * @param taskNumbers The numbers of the tasks to be deleted.
+     */
+    public DeleteCommand(int... taskNumbers) {
+        this(taskNumbers, taskNumbers);
+    }
+
+    /**
+     * Constructs a DeleteCommand for ranges of tasks, which are checked against the task list when it is executed.
+     *
+     * @param firsts The numbers of the first tasks of the ranges.
+     * @param lasts  The numbers of the last tasks of the ranges, inclusive.
      */
-    public DeleteCommand(Integer... taskNumbers) {
-        this.taskNumbers = taskNumbers;
+    public DeleteCommand(int[] firsts, int[] lasts) {
+        this.firsts = firsts;
+        this.lasts = lasts;
         isExit = false;
     }
 
@@ -33,8 +47,9 @@ public class DeleteCommand extends Command {
      */
     @Override
     public String execute(TaskList taskList, Ui ui, Storage storage) throws DukeException {
+        int[] taskNumbers = taskList.getTaskNumbers(firsts, lasts);
         String deleteTasks = taskList.deleteTasks(taskNumbers);
-        storage.saveTasks(taskList.getTasks());
+        storage.saveDeletedTasks(taskList.getTasks(), taskNumbers);
         return deleteTasks;
     }
 
@@ -50,7 +65,7 @@ public class DeleteCommand extends Command {
             return true;
         } else if (o instanceof DeleteCommand) {
             DeleteCommand t = (DeleteCommand) o;
-            return Arrays.equals(t.taskNumbers, this.taskNumbers);
+            return Arrays.equals(t.firsts, this.firsts) && Arrays.equals(t.lasts, this.lasts);
         } else {
             return false;
         }
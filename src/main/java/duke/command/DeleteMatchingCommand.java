@@ -0,0 +1,71 @@
+package duke.command;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+import duke.Storage;
+import duke.TaskList;
+import duke.Ui;
+import duke.exception.DukeException;
+
+/** A command to delete the tasks that are done, or the tasks with a date before a given date. */
+public class DeleteMatchingCommand extends Command {
+
+    /** The date before which tasks are deleted, or null to delete the tasks that are done. */
+    private final LocalDate before;
+
+    /** Constructs a DeleteMatchingCommand that deletes the tasks that are done. */
+    public DeleteMatchingCommand() {
+        this.before = null;
+        isExit = false;
+    }
+
+    /**
+     * Constructs a DeleteMatchingCommand that deletes the tasks with a date before the given date.
+     *
+     * @param before The date, exclusive.
+     */
+    public DeleteMatchingCommand(LocalDate before) {
+        this.before = before;
+        isExit = false;
+    }
+
+    /**
+     * Executes the command by deleting the matching tasks.
+     *
+     * @param taskList The task list that stores and modifies the list of saved tasks.
+     * @param ui       The UI of the bot.
+     * @param storage  The storage system of the bot.
+     * @throws DukeException If there is something wrong with the deleting process.
+     */
+    @Override
+    public String execute(TaskList taskList, Ui ui, Storage storage) throws DukeException {
+        int[] taskNumbers = before == null
+            ? taskList.getDoneTaskNumbers()
+            : taskList.getTaskNumbersBefore(before);
+
+        String deleteTasks = taskList.deleteTasks(taskNumbers);
+        if (taskNumbers.length > 0) {
+            storage.saveDeletedTasks(taskList.getTasks(), taskNumbers);
+        }
+        return deleteTasks;
+    }
+
+    /**
+     * Compares with an object.
+     *
+     * @param o The object compared.
+     * @return True if the object is a DeleteMatchingCommand matching the same tasks.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        } else if (o instanceof DeleteMatchingCommand) {
+            DeleteMatchingCommand t = (DeleteMatchingCommand) o;
+            return Objects.equals(t.before, this.before);
+        } else {
+            return false;
+        }
+    }
+}
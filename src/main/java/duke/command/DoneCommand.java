@@ -10,16 +10,30 @@ import duke.exception.DukeException;
 /** A command to mark a task as done. */
 public class DoneCommand extends Command {
 
-    /** The number of the task to be marked as done. */
-    private Integer[] taskNumbers;
+    /** The numbers of the first tasks of the ranges to be marked as done. */
+    private final int[] firsts;
+
+    /** The numbers of the last tasks of the ranges to be marked as done, inclusive. */
+    private final int[] lasts;
 
     /**
      * Constructs a DoneCommand.
      *
-     * @param taskNumbers The number of the task to be marked as done.
+     * @param taskNumbers The numbers of the tasks to be marked as done.
+     */
+    public DoneCommand(int... taskNumbers) {
+        this(taskNumbers, taskNumbers);
+    }
+
+    /**
+     * Constructs a DoneCommand for ranges of tasks, which are checked against the task list when it is executed.
+     *
+     * @param firsts The numbers of the first tasks of the ranges.
+     * @param lasts  The numbers of the last tasks of the ranges, inclusive.
      */
-    public DoneCommand(Integer... taskNumbers) {
-        this.taskNumbers = taskNumbers;
+    public DoneCommand(int[] firsts, int[] lasts) {
+        this.firsts = firsts;
+        this.lasts = lasts;
         isExit = false;
     }
 
@@ -33,8 +47,9 @@ public class DoneCommand extends Command {
      */
     @Override
     public String execute(TaskList taskList, Ui ui, Storage storage) throws DukeException {
+        int[] taskNumbers = taskList.getTaskNumbers(firsts, lasts);
         String taskDone = taskList.markDone(taskNumbers);
-        storage.saveTasks(taskList.getTasks());
+        storage.saveDoneTasks(taskList.getTasks(), taskNumbers);
         return taskDone;
     }
 
@@ -50,7 +65,7 @@ public class DoneCommand extends Command {
             return true;
         } else if (o instanceof DoneCommand) {
             DoneCommand t = (DoneCommand) o;
-            return Arrays.equals(t.taskNumbers, this.taskNumbers);
+            return Arrays.equals(t.firsts, this.firsts) && Arrays.equals(t.lasts, this.lasts);
         } else {
             return false;
         }
@@ -0,0 +1,80 @@
+package duke.command;
+
+import duke.Storage;
+import duke.TaskList;
+import duke.Ui;
+import duke.exception.DukeException;
+
+/** A command to mark a range of tasks, or every task, as done. */
+public class DoneRangeCommand extends Command {
+
+    /** The number of the first task to be marked as done. */
+    private final int first;
+
+    /** The number of the last task to be marked as done, inclusive. */
+    private final int last;
+
+    /** Whether every task is to be marked as done. */
+    private final boolean isAll;
+
+    /**
+     * Constructs a DoneRangeCommand.
+     *
+     * @param first The number of the first task to be marked as done.
+     * @param last  The number of the last task to be marked as done, inclusive.
+     */
+    public DoneRangeCommand(int first, int last) {
+        this.first = first;
+        this.last = last;
+        this.isAll = false;
+        isExit = false;
+    }
+
+    /** Constructs a DoneRangeCommand that marks every task as done. */
+    public DoneRangeCommand() {
+        this.first = 1;
+        this.last = 0;
+        this.isAll = true;
+        isExit = false;
+    }
+
+    /**
+     * Executes the command by marking the tasks in the range as done.
+     *
+     * @param taskList The task list that stores and modifies the list of saved tasks.
+     * @param ui       The UI of the bot.
+     * @param storage  The storage system of the bot.
+     * @throws DukeException If the range is not within the task list.
+     */
+    @Override
+    public String execute(TaskList taskList, Ui ui, Storage storage) throws DukeException {
+        int size = taskList.getTasks().size();
+        if (isAll && size == 0) {
+            return taskList.markAllDone();
+        }
+
+        String tasksDone = isAll
+            ? taskList.markAllDone()
+            : taskList.markDoneRange(first, last);
+        storage.saveDoneRange(taskList.getTasks(), first, isAll ? size : last);
+        return tasksDone;
+    }
+
+    /**
+     * Compares an object.
+     *
+     * @param o The object compared.
+     * @return True if the object is a DoneRangeCommand with the same range.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        } else if (o instanceof DoneRangeCommand) {
+            DoneRangeCommand t = (DoneRangeCommand) o;
+            return t.isAll == this.isAll && t.first == this.first && t.last == this.last;
+        } else {
+            return false;
+        }
+    }
+}
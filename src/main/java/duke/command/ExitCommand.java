@@ -13,7 +13,7 @@ public class ExitCommand extends Command {
     }
 
     /**
-     * Executes the command by printing a goodbye message.
+     * Executes the command by writing out any unsaved changes and printing a goodbye message.
      *
      * @param taskList The task list that stores and modifies the list of saved tasks.
      * @param ui       The UI of the bot.
@@ -21,6 +21,7 @@ public class ExitCommand extends Command {
      */
     @Override
     public String execute(TaskList taskList, Ui ui, Storage storage) {
+        storage.flush();
         return ui.bye();
     }
 }
@@ -1,5 +1,7 @@
 package duke.command;
 
+import java.util.Arrays;
+
 import duke.Storage;
 import duke.TaskList;
 import duke.Ui;
@@ -8,21 +10,36 @@ import duke.exception.NoKeywordException;
 /** A command to find tasks with a given keyword. */
 public class FindCommand extends Command {
 
+    /** The way of matching the keywords. */
+    private final TaskList.SearchMode mode;
+
     /** The keyword to find in tasks. */
-    private String[] keywords;
+    private final String[] keywords;
 
     /**
      * Constructs a FindCommand.
      *
-     * @param keywords The input given by the user.
-     * @throws NoKeywordException If the fullCommand has no keyword following find command.
+     * @param mode     The way of matching the keywords against the tasks.
+     * @param keywords The keywords given by the user.
+     * @throws NoKeywordException If there are no keywords to search for.
      */
-    public FindCommand(String... keywords) throws NoKeywordException {
-        try {
-            this.keywords = keywords;
-        } catch (StringIndexOutOfBoundsException e) {
+    public FindCommand(TaskList.SearchMode mode, String... keywords) throws NoKeywordException {
+        if (keywords.length == 0) {
             throw new NoKeywordException();
         }
+
+        this.mode = mode;
+        this.keywords = keywords;
+    }
+
+    /**
+     * Constructs a FindCommand that matches tasks with words starting with the keywords.
+     *
+     * @param keywords The keywords given by the user.
+     * @throws NoKeywordException If there are no keywords to search for.
+     */
+    public FindCommand(String... keywords) throws NoKeywordException {
+        this(TaskList.SearchMode.PREFIX, keywords);
     }
 
     /**
@@ -34,6 +51,24 @@ public class FindCommand extends Command {
      */
     @Override
     public String execute(TaskList taskList, Ui ui, Storage storage) {
-        return taskList.printTasks(keywords);
+        return taskList.printTasks(mode, keywords);
+    }
+
+    /**
+     * Compares with an object.
+     *
+     * @param o The object compared.
+     * @return True if the object is of type FindCommand with the same search mode and keywords.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        } else if (o instanceof FindCommand) {
+            FindCommand t = (FindCommand) o;
+            return t.mode == this.mode && Arrays.equals(t.keywords, this.keywords);
+        } else {
+            return false;
+        }
     }
 }
@@ -13,10 +13,17 @@ public class HelpCommand extends Command {
         + "- todo: adds a ToDo task\n"
         + "- event: adds an Event\n"
         + "- deadline: adds a Deadline\n"
-        + "- find: finds tasks with the given keyword(s)\n"
-        + "- list: displays all tasks [with the given date]\n"
+        + "- find: finds tasks with words starting with the given keyword(s)\n"
+        + "  [/exact for whole words, /sub for any part of the description]\n"
+        + "- list: displays all tasks [on the given date, or from a date to another]\n"
+        + "  [--page PAGE --size SIZE for one page of the list]\n"
         + "- done: marks the task(s) with the given index(es) as done\n"
-        + "- delete: deletes the task(s) with the given index(es)\n"
+        + "  [all for every task, range FIRST-LAST for the tasks from FIRST to LAST]\n"
+        + "- delete: deletes the task(s) with the given index(es) or ranges FIRST-LAST\n"
+        + "  [done for the tasks that are done, before DATE for the tasks before a date]\n"
+        + "- undo: undoes the latest change to the list\n"
+        + "- redo: redoes the latest change undone\n"
+        + "- stats: displays how many commands have run and how long they and saving took\n"
         + "- bye: terminates the duke bot\n";
 
     /**
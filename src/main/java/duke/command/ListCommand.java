@@ -1,5 +1,7 @@
 package duke.command;
 
+import java.io.PrintWriter;
+
 import duke.Storage;
 import duke.TaskList;
 import duke.Ui;
@@ -32,4 +34,18 @@ public class ListCommand extends Command {
     public String execute(TaskList taskList, Ui ui, Storage storage) throws DukeException {
         return taskList.processList(fullCommand);
     }
+
+    /**
+     * Executes the command by writing the tasks to the given writer as they are listed.
+     *
+     * @param taskList The task list that stores and modifies the list of saved tasks.
+     * @param ui       The UI of the bot.
+     * @param storage  The storage system of the bot.
+     * @param out      The writer the tasks are written to.
+     * @throws DukeException If there is something wrong with the input format given by the user.
+     */
+    @Override
+    public void execute(TaskList taskList, Ui ui, Storage storage, PrintWriter out) throws DukeException {
+        taskList.writeList(fullCommand, out);
+    }
 }
@@ -0,0 +1,25 @@
+package duke.command;
+
+import duke.Storage;
+import duke.TaskList;
+import duke.Ui;
+import duke.exception.DukeException;
+
+/** A command to redo the latest change to the task list that was undone. */
+public class RedoCommand extends Command {
+
+    /**
+     * Executes the command by going back to the task list after the latest change undone.
+     *
+     * @param taskList The task list that stores and modifies the list of saved tasks.
+     * @param ui       The UI of the bot.
+     * @param storage  The storage system of the bot.
+     * @throws DukeException If there is no undone change to redo.
+     */
+    @Override
+    public String execute(TaskList taskList, Ui ui, Storage storage) throws DukeException {
+        String redone = taskList.redo();
+        storage.saveRedo(taskList.getTasks());
+        return redone;
+    }
+}
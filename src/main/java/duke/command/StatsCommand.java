@@ -0,0 +1,34 @@
+package duke.command;
+
+import duke.Metrics;
+import duke.Storage;
+import duke.TaskList;
+import duke.Ui;
+
+/** A command to display how many commands have run and how long they and the storage operations took. */
+public class StatsCommand extends Command {
+
+    /** The metrics of the bot. */
+    private final Metrics metrics;
+
+    /**
+     * Constructs a StatsCommand.
+     *
+     * @param metrics The metrics of the bot.
+     */
+    public StatsCommand(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Executes the command by summarizing the metrics of the bot.
+     *
+     * @param taskList The task list that stores and modifies the list of saved tasks.
+     * @param ui       The UI of the bot.
+     * @param storage  The storage system of the bot.
+     */
+    @Override
+    public String execute(TaskList taskList, Ui ui, Storage storage) {
+        return metrics.summarize();
+    }
+}
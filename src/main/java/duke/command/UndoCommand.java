@@ -0,0 +1,25 @@
+package duke.command;
+
+import duke.Storage;
+import duke.TaskList;
+import duke.Ui;
+import duke.exception.DukeException;
+
+/** A command to undo the latest change to the task list. */
+public class UndoCommand extends Command {
+
+    /**
+     * Executes the command by going back to the task list before the latest change.
+     *
+     * @param taskList The task list that stores and modifies the list of saved tasks.
+     * @param ui       The UI of the bot.
+     * @param storage  The storage system of the bot.
+     * @throws DukeException If there is no change to undo.
+     */
+    @Override
+    public String execute(TaskList taskList, Ui ui, Storage storage) throws DukeException {
+        String undone = taskList.undo();
+        storage.saveUndo(taskList.getTasks());
+        return undone;
+    }
+}
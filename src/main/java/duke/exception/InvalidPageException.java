@@ -0,0 +1,19 @@
+package duke.exception;
+
+/** An exception that occurs when the page or page size given to the list command is not valid. */
+public class InvalidPageException extends DukeException {
+
+    /** Constructs an InvalidPageException for a page or page size that is not a positive number. */
+    public InvalidPageException() {
+        super("Invalid page. Use list [--page PAGE] [--size SIZE] with positive numbers.");
+    }
+
+    /**
+     * Constructs an InvalidPageException for a page past the end of the list.
+     *
+     * @param pageCount The number of pages in the list.
+     */
+    public InvalidPageException(int pageCount) {
+        super("Invalid page. There " + (pageCount == 1 ? "is only 1 page." : "are only " + pageCount + " pages."));
+    }
+}
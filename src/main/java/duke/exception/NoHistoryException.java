@@ -0,0 +1,14 @@
+package duke.exception;
+
+/** An exception that occurs when there is no change to undo or redo. */
+public class NoHistoryException extends DukeException {
+
+    /**
+     * Constructs a NoHistoryException.
+     *
+     * @param command The command, undo or redo.
+     */
+    public NoHistoryException(String command) {
+        super("There is nothing to " + command + ".");
+    }
+}
@@ -1,15 +1,7 @@
 package duke.gui;
 
-import java.io.IOException;
-import java.util.Collections;
-
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
-import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
-import javafx.scene.Node;
 import javafx.scene.control.Label;
 import javafx.scene.image.Image;
 import javafx.scene.layout.Background;
@@ -20,14 +12,21 @@ import javafx.scene.paint.Color;
 import javafx.scene.paint.ImagePattern;
 import javafx.scene.shape.Circle;
 import javafx.scene.shape.Polygon;
+import javafx.scene.shape.StrokeType;
+import javafx.scene.text.Font;
 
 /**
- * An example of a custom control using FXML.
  * This control represents a dialog box consisting of an ImageView to represent the speaker's face and a label
  * containing text from the speaker.
+ * The node tree is built in code rather than loaded from FXML, as parsing the FXML took most of the time
+ * spent creating each box.
+ * A dialog box can be reused to show another message, which lets the chat transcript recycle them.
  */
 public class DialogBox extends HBox {
 
+    /** The response shown while a command is still being worked on. */
+    public static final Message PENDING_MESSAGE = new Message("...");
+
     private static final Color DUKE_COLOR = Color.valueOf("#160e3c");
     private static final CornerRadii DUKE_CORNER = new CornerRadii(0, 10, 10, 10, false);
     private static final Background DUKE_BG = new Background(new BackgroundFill(DUKE_COLOR, DUKE_CORNER, Insets.EMPTY));
@@ -36,53 +35,87 @@ public class DialogBox extends HBox {
     private static final CornerRadii USER_CORNER = new CornerRadii(10, 0, 10, 10, false);
     private static final Background USER_BG = new Background(new BackgroundFill(USER_COLOR, USER_CORNER, Insets.EMPTY));
 
-    @FXML
-    private Label dialog;
-    @FXML
-    private Polygon triangle;
-    @FXML
-    private Circle circleMask;
-
-    private DialogBox(String text, Image img) {
-        try {
-            FXMLLoader fxmlLoader = new FXMLLoader(MainWindow.class.getResource("/view/DialogBox.fxml"));
-            fxmlLoader.setController(this);
-            fxmlLoader.setRoot(this);
-            fxmlLoader.load();
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+    private static final double PENDING_OPACITY = 0.6;
+
+    private static final Font DIALOG_FONT = Font.font("Consolas", 12);
+    private static final Insets DIALOG_MARGIN = new Insets(4, 0, 4, 0);
+    private static final Insets DIALOG_PADDING = new Insets(8);
+    private static final Insets TRIANGLE_MARGIN = new Insets(4, 0, 0, 0);
+    private static final Insets BOX_PADDING = new Insets(15);
+    private static final double[] TRIANGLE_POINTS = {
+        88.40058898925781, -49.19998550415039,
+        101.80059051513672, -49.19998550415039,
+        88.4006118774414, -35.19998550415039
+    };
+    private static final double CIRCLE_RADIUS = 35;
+    private static final double BOX_WIDTH = 400;
+
+    private final Label dialog = new Label();
+    private final Polygon triangle = new Polygon(TRIANGLE_POINTS);
+    private final Circle circleMask = new Circle(CIRCLE_RADIUS, Color.DODGERBLUE);
 
-        dialog.setText(text);
-        circleMask.setFill(new ImagePattern(img));
+    /** The image shown in the circle mask. */
+    private Image image;
+
+    /** Constructs an empty dialog box, to be filled with {@link #show(Message, Image)}. */
+    public DialogBox() {
+        dialog.setTextFill(Color.WHITE);
+        dialog.setWrapText(true);
+        dialog.setMinHeight(0);
+        dialog.setFont(DIALOG_FONT);
+        dialog.setPadding(DIALOG_PADDING);
+        HBox.setMargin(dialog, DIALOG_MARGIN);
+
+        HBox.setMargin(triangle, TRIANGLE_MARGIN);
+
+        circleMask.setStroke(Color.TRANSPARENT);
+        circleMask.setStrokeType(StrokeType.INSIDE);
+
+        setMaxSize(Double.MAX_VALUE, Double.MAX_VALUE);
+        setMinHeight(USE_PREF_SIZE);
+        setPrefWidth(BOX_WIDTH);
+        setPadding(BOX_PADDING);
+        showAsUser();
     }
 
-    /** Flips the dialog box such that the ImageView is on the left and text on the right. */
-    private void flip() {
-        ObservableList<Node> tmp = FXCollections.observableArrayList(this.getChildren());
-        Collections.reverse(tmp);
-        getChildren().setAll(tmp);
+    /** Places the image on the left and text on the right, for the Duke bot's messages. */
+    private void showAsDuke() {
+        getChildren().setAll(circleMask, triangle, dialog);
         setAlignment(Pos.TOP_LEFT);
+        dialog.setBackground(DUKE_BG);
+        triangle.setFill(DUKE_COLOR);
+        triangle.setScaleX(-1);
     }
 
-    public static DialogBox getUserDialog(String text, Image img) {
-        var db = new DialogBox(text, img);
-        db.dialog.setBackground(USER_BG);
-        db.triangle.setFill(USER_COLOR);
-        return db;
+    /** Places the text on the left and image on the right, for the user's messages. */
+    private void showAsUser() {
+        getChildren().setAll(dialog, triangle, circleMask);
+        setAlignment(Pos.TOP_RIGHT);
+        dialog.setBackground(USER_BG);
+        triangle.setFill(USER_COLOR);
+        triangle.setScaleX(1);
     }
 
-    public static DialogBox getDukeDialog(Message msg, Image img) {
-        var db = new DialogBox(msg.getText(), img);
-        db.flip();
-        db.dialog.setBackground(DUKE_BG);
-        db.triangle.setFill(DUKE_COLOR);
-        db.triangle.setScaleX(-1);
+    /**
+     * Shows the given message in the dialog box, laid out according to its sender.
+     *
+     * @param msg The message to be shown.
+     * @param img The image of the sender.
+     */
+    public void show(Message msg, Image img) {
+        if (msg.isUser()) {
+            showAsUser();
+        } else {
+            showAsDuke();
+        }
 
-        if (msg.isError()) {
-            db.dialog.setStyle("-fx-text-fill: red");
+        if (img != image) {
+            image = img;
+            circleMask.setFill(new ImagePattern(img));
         }
 
-        return db;
+        dialog.setText(msg.getText());
+        dialog.setStyle(msg.isError() ? "-fx-text-fill: red" : "");
+        setOpacity(msg == PENDING_MESSAGE ? PENDING_OPACITY : 1);
     }
 }
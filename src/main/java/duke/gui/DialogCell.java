@@ -0,0 +1,50 @@
+package duke.gui;
+
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.image.Image;
+
+/**
+ * A cell of the chat transcript.
+ * The list view only creates enough cells to fill its visible rows and reuses them while scrolling,
+ * so each cell keeps a single dialog box and fills it with whichever message it is showing.
+ */
+public class DialogCell extends ListCell<Message> {
+
+    /** The horizontal space left for the list's scroll bar. */
+    private static final double SCROLL_BAR_WIDTH = 15;
+
+    private final DialogBox dialogBox = new DialogBox();
+    private final Image userImage;
+    private final Image dukeImage;
+
+    /**
+     * Constructs a DialogCell.
+     *
+     * @param listView  The chat transcript the cell belongs to.
+     * @param userImage The image of the user.
+     * @param dukeImage The image of the Duke bot.
+     */
+    public DialogCell(ListView<Message> listView, Image userImage, Image dukeImage) {
+        this.userImage = userImage;
+        this.dukeImage = dukeImage;
+
+        // Let the dialog box follow the width of the list so that its text wraps instead of scrolling
+        setPrefWidth(0);
+        dialogBox.prefWidthProperty().bind(listView.widthProperty().subtract(SCROLL_BAR_WIDTH));
+    }
+
+    @Override
+    protected void updateItem(Message msg, boolean isEmpty) {
+        super.updateItem(msg, isEmpty);
+        setText(null);
+
+        if (isEmpty || msg == null) {
+            setGraphic(null);
+            return;
+        }
+
+        dialogBox.show(msg, msg.isUser() ? userImage : dukeImage);
+        setGraphic(dialogBox);
+    }
+}
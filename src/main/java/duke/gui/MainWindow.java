@@ -1,11 +1,15 @@
 package duke.gui;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import duke.Duke;
+import javafx.application.Platform;
+import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
-import javafx.scene.control.ScrollPane;
+import javafx.scene.control.ListView;
 import javafx.scene.control.TextField;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
@@ -15,14 +19,11 @@ import javafx.scene.layout.BackgroundImage;
 import javafx.scene.layout.BackgroundPosition;
 import javafx.scene.layout.BackgroundRepeat;
 import javafx.scene.layout.BackgroundSize;
-import javafx.scene.layout.VBox;
 
 /** Controller for MainWindow. Provides the layout for the other controls. */
 public class MainWindow extends AnchorPane {
     @FXML
-    private ScrollPane scrollPane;
-    @FXML
-    private VBox dialogContainer;
+    private ListView<Message> dialogList;
     @FXML
     private TextField userInput;
     @FXML
@@ -30,6 +31,16 @@ public class MainWindow extends AnchorPane {
 
     private Duke duke;
 
+    /**
+     * Runs the user's commands one at a time, in the order they were given, away from the JavaFX thread
+     * so that slow commands do not freeze the window.
+     */
+    private final ExecutorService commandExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "duke-commands");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     private Image userImage = new Image(this.getClass().getResourceAsStream("/images/DaUser.png"));
     private Image dukeImage = new Image(this.getClass().getResourceAsStream("/images/DaDuke.png"));
     private Image bgImage = new Image(this.getClass().getResourceAsStream("/images/wallpaper.png"));
@@ -49,11 +60,12 @@ public class MainWindow extends AnchorPane {
         BackgroundImage bg = new BackgroundImage(bgImage,
             BackgroundRepeat.NO_REPEAT, BackgroundRepeat.REPEAT,
             BackgroundPosition.DEFAULT, bgSize);
-        dialogContainer.setBackground(new Background(bg));
+        dialogList.setBackground(new Background(bg));
 
-        // Scroll Pane and Scroll Bar
-        scrollPane.vvalueProperty().bind(dialogContainer.heightProperty());
-        scrollPane.getStylesheets().add(this.getClass().getResource("/view/scrollbar.css").toString());
+        // Chat transcript and Scroll Bar
+        dialogList.setCellFactory(list -> new DialogCell(list, userImage, dukeImage));
+        dialogList.getStylesheets().add(this.getClass().getResource("/view/scrollbar.css").toString());
+        dialogList.getStylesheets().add(this.getClass().getResource("/view/transcript.css").toString());
 
         // Button
         view.setFitHeight(25);
@@ -61,7 +73,7 @@ public class MainWindow extends AnchorPane {
         sendButton.setGraphic(view);
 
         // Bot Greeting
-        dialogContainer.getChildren().addAll(DialogBox.getDukeDialog(intro, dukeImage));
+        dialogList.getItems().add(intro);
     }
 
     public void setDuke(Duke d) {
@@ -69,8 +81,9 @@ public class MainWindow extends AnchorPane {
     }
 
     /**
-     * Creates two dialog boxes, one echoing user input and the other containing Duke's reply and then appends them to
-     * the dialog container. Clears the user input after processing.
+     * Adds two messages to the chat transcript, one echoing user input and the other containing Duke's reply.
+     * Clears the user input after processing.
+     * The reply shows a working indicator until the command, which runs on the command thread, completes.
      */
     @FXML
     private void handleUserInput() {
@@ -80,16 +93,32 @@ public class MainWindow extends AnchorPane {
             return;
         }
 
-        Message response = duke.getResponse(input);
-        dialogContainer.getChildren().addAll(
-            DialogBox.getUserDialog(input, userImage),
-            DialogBox.getDukeDialog(response, dukeImage)
-        );
+        ObservableList<Message> messages = dialogList.getItems();
+        messages.add(Message.fromUser(input));
+        messages.add(DialogBox.PENDING_MESSAGE);
+        int responseIndex = messages.size() - 1;
+        dialogList.scrollTo(responseIndex);
 
         userInput.clear();
 
+        CompletableFuture.supplyAsync(() -> duke.getResponse(input), commandExecutor)
+            .exceptionally(e -> new Message(e.getMessage(), true))
+            .thenAccept(response -> Platform.runLater(() -> showResponse(input, response, responseIndex)));
+    }
+
+    /**
+     * Replaces the working indicator created for the input with Duke's reply.
+     *
+     * @param input         The user input.
+     * @param response      Duke's reply to the input.
+     * @param responseIndex The position of the reply in the chat transcript.
+     */
+    private void showResponse(String input, Message response, int responseIndex) {
+        dialogList.getItems().set(responseIndex, response);
+        dialogList.scrollTo(dialogList.getItems().size() - 1);
+
         // Terminate when "bye"
-        if (input.equalsIgnoreCase("bye")) {
+        if (input.trim().equalsIgnoreCase("bye")) {
             CompletableFuture.runAsync(() -> {
                 try {
                     Thread.sleep(500);
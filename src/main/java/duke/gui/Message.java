@@ -1,23 +1,38 @@
 package duke.gui;
 
-/** The Duke bot's response to the user input. */
+/** A message in the chat: the user's input or the Duke bot's response to it. */
 public class Message {
 
-    /** The duke bot's response. */
+    /** The content of the message. */
     private String text;
 
     /** Determines if the response is an error message. */
     private boolean isError;
 
+    /** Determines if the message was sent by the user. */
+    private boolean isUser;
+
     /**
      * Constructs a message.
      *
-     * @param text The content of the message.
+     * @param text    The content of the message.
      * @param isError The status of the message.
+     * @param isUser  True if the message was sent by the user.
      */
-    public Message(String text, boolean isError) {
+    private Message(String text, boolean isError, boolean isUser) {
         this.text = text;
         this.isError = isError;
+        this.isUser = isUser;
+    }
+
+    /**
+     * Constructs a response message.
+     *
+     * @param text The content of the message.
+     * @param isError The status of the message.
+     */
+    public Message(String text, boolean isError) {
+        this(text, isError, false);
     }
 
     /**
@@ -29,6 +44,16 @@ public class Message {
         this(text, false);
     }
 
+    /**
+     * Constructs a message sent by the user.
+     *
+     * @param text The user's input.
+     * @return The message.
+     */
+    public static Message fromUser(String text) {
+        return new Message(text, false, true);
+    }
+
     /**
      * Obtains the message's content.
      *
@@ -46,4 +71,13 @@ public class Message {
     public boolean isError() {
         return isError;
     }
+
+    /**
+     * Obtains the message's sender.
+     *
+     * @return True if the message was sent by the user, false if it is the Duke bot's response.
+     */
+    public boolean isUser() {
+        return isUser;
+    }
 }
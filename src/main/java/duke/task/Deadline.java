@@ -2,6 +2,7 @@ package duke.task;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Objects;
 
 /** A task of type deadline. */
 public class Deadline extends Task {
@@ -59,11 +60,25 @@ public class Deadline extends Task {
         return false;
     }
 
+    /**
+     * Returns the hash code of the deadline, consistent with {@link #equals(Object)}.
+     *
+     * @return The hash code of the task and deadline.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(task, deadline);
+    }
+
     @Override
     public LocalDate getDate() {
         return deadline.toLocalDate();
     }
 
+    public LocalDateTime getDeadline() {
+        return deadline;
+    }
+
     /**
      * The format used for saving.
      *
@@ -2,6 +2,7 @@ package duke.task;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Objects;
 
 /** A task of type Event. */
 public class Event extends Task {
@@ -101,6 +102,19 @@ public class Event extends Task {
         return startDate.toLocalDate();
     }
 
+    public LocalDateTime getStartDate() {
+        return startDate;
+    }
+
+    /**
+     * Obtains the end date time of the event.
+     *
+     * @return The end date time, or null if the event has no end date.
+     */
+    public LocalDateTime getEndDate() {
+        return endDate;
+    }
+
     /**
      * Compares with another object.
      *
@@ -126,6 +140,16 @@ public class Event extends Task {
         return false;
     }
 
+    /**
+     * Returns the hash code of the event, consistent with {@link #equals(Object)}.
+     *
+     * @return The hash code of the task, start and end dates.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(task, startDate, endDate);
+    }
+
     /**
      * The format used for saving.
      *
@@ -52,6 +52,10 @@ public abstract class Task {
         return this.task;
     }
 
+    public boolean isDone() {
+        return this.isDone;
+    }
+
     public abstract LocalDate getDate();
 
     /**
@@ -72,6 +76,16 @@ public abstract class Task {
         }
     }
 
+    /**
+     * Returns the hash code of the task, consistent with {@link #equals(Object)}.
+     *
+     * @return The hash code of the task description.
+     */
+    @Override
+    public int hashCode() {
+        return task.hashCode();
+    }
+
     /**
      * The format used to display on a list.
      *
@@ -46,6 +46,16 @@ public class ToDo extends Task {
         return o instanceof ToDo && super.equals(o);
     }
 
+    /**
+     * Returns the hash code of the ToDo, consistent with {@link #equals(Object)}.
+     *
+     * @return The hash code of the task description.
+     */
+    @Override
+    public int hashCode() {
+        return super.hashCode();
+    }
+
     /**
      * The format used for saving.
      *
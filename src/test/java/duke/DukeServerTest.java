@@ -0,0 +1,103 @@
+package duke;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+public class DukeServerTest {
+
+    /** A client of the server, for the tests. */
+    private static class Client implements AutoCloseable {
+        private final Socket socket;
+        private final BufferedReader in;
+        private final PrintWriter out;
+
+        Client(int port, String user) throws IOException {
+            socket = new Socket(InetAddress.getLoopbackAddress(), port);
+            in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+            send(user);
+        }
+
+        String send(String command) throws IOException {
+            out.println(command);
+
+            StringBuilder response = new StringBuilder();
+            for (String line = in.readLine(); !line.equals("."); line = in.readLine()) {
+                response.append(line.startsWith(".") ? line.substring(1) : line).append('\n');
+            }
+            return response.toString().trim();
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+
+    @Test
+    public void serve_concurrentClients_eachUserHasOwnList() throws IOException {
+        Path dataDirectory = Files.createTempDirectory("serverTest");
+
+        try {
+            try (DukeServer server = new DukeServer(0, dataDirectory.toString())) {
+                server.start();
+
+                List<CompletableFuture<Void>> clients = new ArrayList<>();
+                for (int c = 0; c < 8; c++) {
+                    int clientNo = c;
+                    clients.add(CompletableFuture.runAsync(() -> {
+                        try (Client client = new Client(server.getPort(), "alice")) {
+                            for (int i = 0; i < 10; i++) {
+                                client.send("todo task " + clientNo + "-" + i);
+                            }
+                        } catch (IOException e) {
+                            throw new RuntimeException(e);
+                        }
+                    }));
+                }
+                CompletableFuture.allOf(clients.toArray(CompletableFuture[]::new)).join();
+
+                try (Client bob = new Client(server.getPort(), "bob")) {
+                    bob.send("todo read book");
+                    assertEquals(1, bob.send("list").lines().count());
+                    assertTrue(bob.send("bye").startsWith("Bye!"));
+                }
+                try (Client alice = new Client(server.getPort(), "Alice")) {
+                    assertEquals(80, alice.send("list").lines().count());
+                }
+            }
+
+            try (DukeServer server = new DukeServer(0, dataDirectory.toString())) {
+                server.start();
+                try (Client alice = new Client(server.getPort(), "alice")) {
+                    assertEquals(80, alice.send("list").lines().count());
+                }
+            }
+        } finally {
+            deleteDirectory(dataDirectory);
+        }
+    }
+
+    private static void deleteDirectory(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+}
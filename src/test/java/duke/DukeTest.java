@@ -1,14 +1,27 @@
 package duke;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Test;
 
+import duke.exception.DukeException;
+import duke.task.Task;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
 public class DukeTest {
     @Test
     public void dummyTest() {
@@ -27,4 +40,97 @@ public class DukeTest {
             e.printStackTrace();
         }
     }
+
+    @Test
+    public void runBatch_scriptWithErrors_validCommandsSaved() {
+        try {
+            Duke duke = new Duke("batchTest");
+            Files.write(Paths.get("batchTest/script.txt"),
+                List.of("todo sleep", "bleh", "", "deadline project /by 2020-08-27", "done 2", "todo eat",
+                    "delete 3"));
+            duke.runBatch(Paths.get("batchTest/script.txt"));
+
+            String stats = duke.getResponse("stats").getText();
+            assertTrue(stats.contains("command.deadline "));
+            assertTrue(stats.contains("command.errors: 1"));
+
+            List<Task> tasks = new Storage("batchTest", true).load();
+            assertEquals(2, tasks.size());
+            assertTrue(tasks.get(1).isDone());
+            assertTrue(Files.notExists(Paths.get("batchTest/duke.journal"))
+                || Files.size(Paths.get("batchTest/duke.journal")) == 0);
+
+            Files.deleteIfExists(Paths.get("batchTest/script.txt"));
+            Files.deleteIfExists(Paths.get("batchTest/duke.journal"));
+            Files.deleteIfExists(Paths.get("batchTest/duke.txt"));
+            Files.deleteIfExists(Paths.get("batchTest/duke.txt.prev"));
+            Files.deleteIfExists(Paths.get("batchTest"));
+
+        } catch (DukeException | IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Test
+    public void getResponse_stats_commandsAndStorageTimed() {
+        Duke duke = new Duke("statsTest");
+        duke.getResponse("todo read book");
+        duke.getResponse("bleh");
+
+        String stats = duke.getResponse("stats").getText();
+        assertTrue(stats.contains("command.todo "));
+        assertTrue(stats.contains("storage.load "));
+        assertTrue(stats.contains("storage.save "));
+        assertTrue(stats.contains("command.errors: 1"));
+        duke.flush();
+
+        try (Stream<Path> files = Files.walk(Paths.get("statsTest"))) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Test
+    public void getResponse_flightRecording_commandAndStorageEventsRecorded() {
+        try (Recording recording = new Recording()) {
+            for (String event : List.of("duke.Response", "duke.Command", "duke.Load", "duke.Save")) {
+                recording.enable(event);
+            }
+            recording.start();
+
+            Duke duke = new Duke("jfrTest");
+            duke.getResponse("todo read book");
+            duke.getResponse("bleh");
+            duke.flush();
+            recording.stop();
+
+            Path recordingFile = Files.createTempFile("jfrTest", ".jfr");
+            recording.dump(recordingFile);
+            List<RecordedEvent> events = RecordingFile.readAllEvents(recordingFile);
+            Files.delete(recordingFile);
+
+            Map<String, List<RecordedEvent>> eventsByType = events.stream()
+                .collect(Collectors.groupingBy(event -> event.getEventType().getName()));
+            assertEquals(2, eventsByType.get("duke.Response").size());
+            assertEquals("todo", eventsByType.get("duke.Command").get(0).getString("command"));
+            assertEquals(1, eventsByType.get("duke.Load").size());
+            assertEquals(1, eventsByType.get("duke.Save").size());
+
+            RecordedEvent failedResponse = eventsByType.get("duke.Response").stream()
+                .filter(event -> event.getBoolean("isFailed"))
+                .findFirst()
+                .orElseThrow();
+            assertNull(failedResponse.getString("command"));
+
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        try (Stream<Path> files = Files.walk(Paths.get("jfrTest"))) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
 }
@@ -0,0 +1,44 @@
+package duke;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class MetricsTest {
+
+    @Test
+    public void getPercentile_manyDurations_withinBucketWidth() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 1_000_000; micros++) {
+            histogram.record(micros * 1000);
+        }
+
+        assertEquals(1_000_000, histogram.getCount());
+        assertEquals(1_000_000_000L, histogram.getMax());
+        for (double fraction : new double[] {0.5, 0.9, 0.99}) {
+            double expected = fraction * 1e9;
+            assertTrue(Math.abs(histogram.getPercentile(fraction) - expected) <= expected / 16);
+        }
+
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, histogram.getPercentile(1.0));
+        assertEquals(0, new LatencyHistogram().getPercentile(0.5));
+    }
+
+    @Test
+    public void summarize_recordedOperations_sortedByName() {
+        Metrics metrics = new Metrics();
+        assertTrue(metrics.summarize().startsWith("Nothing has been recorded"));
+
+        metrics.record(Metrics.SAVE, 2_000_000);
+        metrics.record(Metrics.PARSE, 1000);
+        metrics.record(Metrics.PARSE, 3000);
+        metrics.increment(Metrics.SAVED_BYTES, 10);
+
+        String summary = metrics.summarize();
+        assertEquals(2, metrics.getCount(Metrics.PARSE));
+        assertTrue(summary.indexOf(Metrics.PARSE) < summary.indexOf(Metrics.SAVE));
+        assertTrue(summary.endsWith(Metrics.SAVED_BYTES + ": 10"));
+    }
+}
@@ -2,18 +2,30 @@ package duke;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
 
 import org.junit.jupiter.api.Test;
 
 import duke.command.DeadlineCommand;
 import duke.command.DeleteCommand;
+import duke.command.DeleteMatchingCommand;
 import duke.command.DoneCommand;
+import duke.command.DoneRangeCommand;
 import duke.command.EventCommand;
+import duke.command.FindCommand;
+import duke.command.RedoCommand;
+import duke.command.StatsCommand;
 import duke.command.ToDoCommand;
+import duke.command.UndoCommand;
 import duke.exception.DukeException;
 import duke.exception.EmptyTaskException;
 import duke.exception.InvalidDateException;
 import duke.exception.NoIndexException;
+import duke.exception.NoKeywordException;
 import duke.exception.UnrecognizedTaskException;
 
 
@@ -74,6 +86,25 @@ public class ParserTest {
         });
     }
 
+    @Test
+    public void getDateTime_invalidDayOfMonth_exceptionThrown() {
+        assertThrows(InvalidDateException.class, () -> {
+            Parser.getDateTime("2019-02-29");
+        });
+    }
+
+    @Test
+    public void getDateTime_validFormats_parsed() {
+        try {
+            assertEquals(LocalDateTime.of(2020, 2, 29, 10, 0), Parser.getDateTime(" 2020-02-29T10:00 "));
+            assertEquals(LocalDateTime.of(2020, 8, 27, 23, 59, 30), Parser.getDateTime("2020-08-27T23:59:30"));
+            assertEquals(LocalDateTime.of(2020, 8, 27, 23, 59), Parser.getDateTime("2020-08-27"));
+            assertEquals(LocalDateTime.of(LocalDate.now(), LocalTime.of(9, 5)), Parser.getDateTime("09:05"));
+        } catch (DukeException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
     @Test
     public void parse_inputToDo_returnToDoCommand() {
         try {
@@ -112,6 +143,23 @@ public class ParserTest {
         }
     }
 
+    @Test
+    public void parse_findNoKeyword_exceptionThrown() {
+        assertThrows(NoKeywordException.class, () -> {
+            Parser.parse("find /exact ");
+        });
+    }
+
+    @Test
+    public void parse_inputFindExact_returnFindCommand() {
+        try {
+            assertEquals(Parser.parse("find /exact die  hard"),
+                new FindCommand(TaskList.SearchMode.EXACT, "die", "hard"));
+        } catch (DukeException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
     @Test
     public void parse_inputDelete_returnDeleteCommand() {
         try {
@@ -120,4 +168,69 @@ public class ParserTest {
             System.out.println(e.getMessage());
         }
     }
+
+    @Test
+    public void parse_inputDeleteRangesAndPredicates_returnDeleteCommands() {
+        try {
+            assertEquals(Parser.parse("delete 2 5-8 3"), new DeleteCommand(new int[] {2, 5, 3}, new int[] {2, 8, 3}));
+            assertEquals(Parser.parse("delete 1-2000000000"), new DeleteCommand(new int[] {1}, new int[] {2000000000}));
+            assertEquals(Parser.parse("delete done"), new DeleteMatchingCommand());
+            assertEquals(Parser.parse("delete before 2026-01-01"),
+                new DeleteMatchingCommand(LocalDate.of(2026, 1, 1)));
+        } catch (DukeException e) {
+            System.out.println(e.getMessage());
+        }
+
+        assertThrows(NoIndexException.class, () -> Parser.parse("delete 8-5"));
+        assertThrows(NoIndexException.class, () -> Parser.parse("delete 1-20000000000"));
+        assertThrows(InvalidDateException.class, () -> Parser.parse("delete before someday"));
+    }
+
+    @Test
+    public void parse_doneInvalidIndex_exceptionThrown() {
+        assertThrows(NoIndexException.class, () -> {
+            Parser.parse("done 1 two");
+        });
+    }
+
+    @Test
+    public void parse_inputDoneManyNumbers_returnDoneCommand() {
+        try {
+            assertEquals(Parser.parse("  DONE 1 2\t 3 4 5  "), new DoneCommand(1, 2, 3, 4, 5));
+        } catch (DukeException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    @Test
+    public void parse_inputDoneAllOrRange_returnDoneRangeCommand() {
+        try {
+            assertEquals(Parser.parse("done all"), new DoneRangeCommand());
+            assertEquals(Parser.parse("done range 100-5000"), new DoneRangeCommand(100, 5000));
+        } catch (DukeException e) {
+            System.out.println(e.getMessage());
+        }
+
+        assertThrows(NoIndexException.class, () -> Parser.parse("done range 100"));
+        assertThrows(NoIndexException.class, () -> Parser.parse("done range a-b"));
+    }
+
+    @Test
+    public void parse_inputStats_returnStatsCommand() {
+        try {
+            assertTrue(Parser.parse(" Stats ") instanceof StatsCommand);
+        } catch (DukeException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    @Test
+    public void parse_inputUndoRedo_returnUndoAndRedoCommands() {
+        try {
+            assertTrue(Parser.parse("undo") instanceof UndoCommand);
+            assertTrue(Parser.parse(" REDO ") instanceof RedoCommand);
+        } catch (DukeException e) {
+            System.out.println(e.getMessage());
+        }
+    }
 }
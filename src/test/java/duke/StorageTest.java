@@ -1,19 +1,24 @@
 package duke;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.jupiter.api.Test;
 
 import duke.exception.DukeException;
+import duke.exception.FileLoadError;
 import duke.task.Deadline;
 import duke.task.Event;
 import duke.task.Task;
@@ -26,6 +31,7 @@ public class StorageTest {
             Storage storage = new Storage("storageTest");
             assertTrue(Files.exists(Paths.get("storageTest/duke.txt")));
             Files.deleteIfExists(Paths.get("storageTest/duke.txt"));
+            Files.deleteIfExists(Paths.get("storageTest/duke.txt.prev"));
             Files.deleteIfExists(Paths.get("storageTest"));
         } catch (IOException e) {
             e.printStackTrace();
@@ -51,4 +57,377 @@ public class StorageTest {
             System.out.println(e.getMessage());
         }
     }
+
+    @Test
+    public void journal_addDoneDelete_replayedOnLoad() {
+        ArrayList<Task> tasks = new ArrayList<>();
+        Storage storage = new Storage("journalTest", true);
+        storage.saveTasks(tasks);
+
+        tasks.add(new ToDo("sleep"));
+        storage.saveAddedTask(tasks);
+        tasks.add(new ToDo("eat"));
+        storage.saveAddedTask(tasks);
+        tasks.add(new Deadline("project",
+            LocalDateTime.of(LocalDate.parse("2020-08-27"), LocalTime.parse("23:59"))));
+        storage.saveAddedTask(tasks);
+
+        tasks.set(2, tasks.get(2).markDone());
+        storage.saveDoneTasks(tasks, 3);
+        tasks.remove(0);
+        storage.saveDeletedTasks(tasks, 1);
+        storage.flush();
+
+        try {
+            assertEquals(tasks, new Storage("journalTest", true).load());
+            Files.deleteIfExists(Paths.get("journalTest/duke.journal"));
+            Files.deleteIfExists(Paths.get("journalTest/duke.txt"));
+            Files.deleteIfExists(Paths.get("journalTest/duke.txt.prev"));
+            Files.deleteIfExists(Paths.get("journalTest"));
+        } catch (DukeException | IOException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    @Test
+    public void journal_undoAndRedo_replayedWithHistory() {
+        Storage storage = new Storage("undoJournalTest", true);
+        storage.saveTasks(new ArrayList<>());
+        TaskList taskList = new TaskList();
+
+        try {
+
+            taskList.addToDo("sleep");
+            storage.saveAddedTask(taskList.getTasks());
+            taskList.addToDo("eat");
+            storage.saveAddedTask(taskList.getTasks());
+            taskList.deleteTasks(1);
+            storage.saveDeletedTasks(taskList.getTasks(), 1);
+            taskList.undo();
+            storage.saveUndo(taskList.getTasks());
+            taskList.undo();
+            storage.saveUndo(taskList.getTasks());
+            taskList.redo();
+            storage.saveRedo(taskList.getTasks());
+            storage.flush();
+
+            Storage loadedStorage = new Storage("undoJournalTest", true);
+            TaskList loadedTaskList = new TaskList(loadedStorage.loadLazily(), loadedStorage.getHistory(), 10);
+            assertEquals(List.of(new ToDo("sleep"), new ToDo("eat")), loadedTaskList.getTasks());
+
+            // The changes replayed can be undone and redone after loading
+            loadedTaskList.redo();
+            assertEquals(List.of(new ToDo("eat")), loadedTaskList.getTasks());
+            loadedTaskList.undo();
+            loadedTaskList.undo();
+            loadedTaskList.undo();
+            assertEquals(List.of(), loadedTaskList.getTasks());
+
+            Files.deleteIfExists(Paths.get("undoJournalTest/duke.journal"));
+            Files.deleteIfExists(Paths.get("undoJournalTest/duke.txt"));
+            Files.deleteIfExists(Paths.get("undoJournalTest/duke.txt.prev"));
+            Files.deleteIfExists(Paths.get("undoJournalTest"));
+        } catch (DukeException | IOException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    @Test
+    public void saveUndo_changeBeforeSavedFile_wholeListSaved() {
+        Storage storage = new Storage("undoSaveTest", true);
+        storage.saveTasks(new ArrayList<>());
+        TaskList taskList = new TaskList();
+
+        try {
+
+            taskList.addToDo("sleep");
+            storage.saveAddedTask(taskList.getTasks());
+            taskList.addToDo("eat");
+            storage.saveTasks(taskList.getTasks());
+
+            // The journal no longer holds the changes, so undoing them saves the whole list
+            taskList.undo();
+            storage.saveUndo(taskList.getTasks());
+            taskList.undo();
+            storage.saveUndo(taskList.getTasks());
+            taskList.redo();
+            storage.saveRedo(taskList.getTasks());
+            storage.flush();
+
+            assertEquals(List.of(new ToDo("sleep")), new Storage("undoSaveTest", true).load());
+
+            Files.deleteIfExists(Paths.get("undoSaveTest/duke.journal"));
+            Files.deleteIfExists(Paths.get("undoSaveTest/duke.txt"));
+            Files.deleteIfExists(Paths.get("undoSaveTest/duke.txt.prev"));
+            Files.deleteIfExists(Paths.get("undoSaveTest"));
+        } catch (DukeException | IOException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    @Test
+    public void binaryFormat_textFileSaved_migratedAndLoaded() {
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new ToDo("sleep").markDone());
+        tasks.add(new Event("bfast", LocalDateTime.of(LocalDate.parse("2020-08-24"),
+            LocalTime.parse("10:00")), LocalDateTime.of(LocalDate.parse("2020-08-24"),
+            LocalTime.parse("12:00"))));
+        tasks.add(new Event("lunch", LocalDateTime.of(LocalDate.parse("2020-08-24"),
+            LocalTime.parse("12:00"))));
+        tasks.add(new Deadline("projek \u00e9t\u00e9",
+            LocalDateTime.of(LocalDate.parse("2020-08-27"), LocalTime.parse("23:59"))));
+
+        new Storage("binaryTest").saveTasks(tasks);
+
+        try {
+            Storage storage = new Storage("binaryTest", false, Storage.Format.BINARY);
+            assertEquals(tasks, storage.load());
+            assertTrue(Files.exists(Paths.get("binaryTest/duke.bin")));
+
+            List<Task> loadedTasks = new Storage("binaryTest", false, Storage.Format.BINARY).load();
+            assertEquals(tasks, loadedTasks);
+            assertTrue(loadedTasks.get(0).isDone());
+
+            Files.deleteIfExists(Paths.get("binaryTest/duke.bin"));
+            Files.deleteIfExists(Paths.get("binaryTest/duke.bin.prev"));
+            Files.deleteIfExists(Paths.get("binaryTest/duke.txt"));
+            Files.deleteIfExists(Paths.get("binaryTest/duke.txt.prev"));
+            Files.deleteIfExists(Paths.get("binaryTest"));
+        } catch (DukeException | IOException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    @Test
+    public void loadLazily_journaledChanges_sameAsLoad() {
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new ToDo("sleep"));
+        tasks.add(new Deadline("project",
+            LocalDateTime.of(LocalDate.parse("2020-08-27"), LocalTime.parse("23:59"))));
+        tasks.add(new Event("bfast", LocalDateTime.of(LocalDate.parse("2020-08-24"),
+            LocalTime.parse("10:00")), LocalDateTime.of(LocalDate.parse("2020-08-24"),
+            LocalTime.parse("12:00"))));
+
+        Storage storage = new Storage("lazyTest", true);
+        storage.saveTasks(tasks);
+        tasks.add(new ToDo("eat"));
+        storage.saveAddedTask(tasks);
+        tasks.set(1, tasks.get(1).markDone());
+        storage.saveDoneTasks(tasks, 2);
+        storage.flush();
+
+        try {
+            List<Task> loadedTasks = new Storage("lazyTest", true).loadLazily();
+            assertEquals(tasks, loadedTasks);
+            assertTrue(loadedTasks.get(1).isDone());
+
+            TaskList taskList = new TaskList(loadedTasks);
+            taskList.deleteTasks(1);
+            tasks.remove(0);
+            assertEquals(tasks, taskList.getTasks());
+
+            Files.deleteIfExists(Paths.get("lazyTest/duke.journal"));
+            Files.deleteIfExists(Paths.get("lazyTest/duke.txt"));
+            Files.deleteIfExists(Paths.get("lazyTest/duke.txt.prev"));
+            Files.deleteIfExists(Paths.get("lazyTest"));
+        } catch (DukeException | IOException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    @Test
+    public void loadColumnar_journaledChanges_sameAsLoad() {
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new ToDo("sleep").markDone());
+        tasks.add(new Deadline("project",
+            LocalDateTime.of(LocalDate.parse("2020-08-27"), LocalTime.parse("23:59"))));
+
+        Storage storage = new Storage("columnarTest", true);
+        storage.saveTasks(tasks);
+        tasks.add(new ToDo("eat"));
+        storage.saveAddedTask(tasks);
+        tasks.set(1, tasks.get(1).markDone());
+        storage.saveDoneTasks(tasks, 2);
+        storage.flush();
+
+        try {
+            List<Task> loadedTasks = new Storage("columnarTest", true).loadColumnar();
+            assertEquals(tasks, loadedTasks);
+            assertTrue(((PersistentTaskList) loadedTasks).getBase() instanceof ColumnarTaskList);
+            assertTrue(loadedTasks.get(0).isDone());
+            assertTrue(loadedTasks.get(1).isDone());
+
+            Files.deleteIfExists(Paths.get("columnarTest/duke.journal"));
+            Files.deleteIfExists(Paths.get("columnarTest/duke.txt"));
+            Files.deleteIfExists(Paths.get("columnarTest/duke.txt.prev"));
+            Files.deleteIfExists(Paths.get("columnarTest"));
+        } catch (DukeException | IOException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    @Test
+    public void loadLazily_manyTasks_onlyAccessedTasksRead() {
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            tasks.add(new ToDo("task " + i));
+        }
+        new Storage("lazyReadTest").saveTasks(tasks);
+
+        try {
+            // A damaged task that is never accessed is not found, as the file is not read in full
+            Path savedFile = Paths.get("lazyReadTest/duke.txt");
+            String savedText = Files.readString(savedFile);
+            Files.writeString(savedFile, savedText.replace("task 5000", "task 500x"));
+
+            MappedTaskList loadedTasks = (MappedTaskList) new Storage("lazyReadTest").loadLazily();
+            assertEquals(10000, loadedTasks.size());
+            assertEquals(0, loadedTasks.getDecodedCount());
+            assertEquals(new ToDo("task 9999"), loadedTasks.get(9999));
+            assertEquals(1, loadedTasks.getDecodedCount());
+            assertThrows(FileLoadError.class, () -> new Storage("lazyReadTest").load());
+
+            Files.deleteIfExists(savedFile);
+            Files.deleteIfExists(Paths.get("lazyReadTest/duke.txt.prev"));
+            Files.deleteIfExists(Paths.get("lazyReadTest"));
+        } catch (DukeException | IOException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    @Test
+    public void loadLazily_binaryFormat_sameAsLoad() {
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new ToDo("sleep").markDone());
+        tasks.add(new Event("lunch", LocalDateTime.of(LocalDate.parse("2020-08-24"),
+            LocalTime.parse("12:00"))));
+        tasks.add(new Deadline("project",
+            LocalDateTime.of(LocalDate.parse("2020-08-27"), LocalTime.parse("23:59"))));
+
+        Storage storage = new Storage("lazyBinaryTest", false, Storage.Format.BINARY);
+        storage.saveTasks(tasks);
+
+        try {
+            List<Task> loadedTasks = storage.loadLazily();
+            assertEquals(tasks.get(2), loadedTasks.get(2));
+            assertEquals(tasks, loadedTasks);
+
+            storage.saveTasks(loadedTasks);
+            assertEquals(tasks, storage.load());
+
+            Files.deleteIfExists(Paths.get("lazyBinaryTest/duke.bin"));
+            Files.deleteIfExists(Paths.get("lazyBinaryTest/duke.bin.prev"));
+            Files.deleteIfExists(Paths.get("lazyBinaryTest/duke.txt"));
+            Files.deleteIfExists(Paths.get("lazyBinaryTest/duke.txt.prev"));
+            Files.deleteIfExists(Paths.get("lazyBinaryTest"));
+        } catch (DukeException | IOException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    @Test
+    public void saveDelay_burstOfChanges_savedOnFlush() {
+        ArrayList<Task> tasks = new ArrayList<>();
+        Storage storage = new Storage("delayedTest", false, Storage.Format.TEXT, Duration.ofHours(1));
+
+        try {
+            for (int i = 0; i < 100; i++) {
+                tasks.add(new ToDo("task " + i));
+                storage.saveAddedTask(tasks);
+            }
+
+            assertEquals(0, storage.load().size());
+
+            storage.flush();
+            assertEquals(tasks, storage.load());
+            assertTrue(Files.notExists(Paths.get("delayedTest/duke.txt.tmp")));
+
+            Files.deleteIfExists(Paths.get("delayedTest/duke.txt"));
+            Files.deleteIfExists(Paths.get("delayedTest/duke.txt.prev"));
+            Files.deleteIfExists(Paths.get("delayedTest"));
+        } catch (DukeException | IOException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    @Test
+    public void recover_damagedSaveFile_previousGenerationLoaded() {
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new ToDo("sleep"));
+        Storage storage = new Storage("recoverTest", true);
+        storage.saveTasks(tasks);
+        tasks.add(new ToDo("eat"));
+        storage.saveTasks(tasks);
+        storage.flush();
+
+        try {
+            byte[] savedFile = Files.readAllBytes(Paths.get("recoverTest/duke.txt"));
+            savedFile[savedFile.length - 2] = 'x';
+            Files.write(Paths.get("recoverTest/duke.txt"), savedFile);
+
+            Storage damagedStorage = new Storage("recoverTest", true);
+            assertThrows(FileLoadError.class, damagedStorage::load);
+            assertEquals(List.of(new ToDo("sleep")), damagedStorage.recover());
+            assertEquals(List.of(new ToDo("sleep")), new Storage("recoverTest", true).load());
+
+            Files.deleteIfExists(Paths.get("recoverTest/duke.journal"));
+            Files.deleteIfExists(Paths.get("recoverTest/duke.txt"));
+            Files.deleteIfExists(Paths.get("recoverTest/duke.txt.prev"));
+            Files.deleteIfExists(Paths.get("recoverTest"));
+        } catch (DukeException | IOException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    @Test
+    public void load_staleJournal_notReplayed() {
+        ArrayList<Task> tasks = new ArrayList<>();
+        Storage storage = new Storage("staleJournalTest", true);
+        storage.saveTasks(tasks);
+        tasks.add(new ToDo("sleep"));
+        storage.saveAddedTask(tasks);
+        storage.flush();
+
+        try {
+            // A crash after saving the task list but before emptying the journal
+            byte[] journal = Files.readAllBytes(Paths.get("staleJournalTest/duke.journal"));
+            storage.saveTasks(tasks);
+            storage.flush();
+            Files.write(Paths.get("staleJournalTest/duke.journal"), journal);
+
+            assertEquals(tasks, new Storage("staleJournalTest", true).load());
+
+            Files.deleteIfExists(Paths.get("staleJournalTest/duke.journal"));
+            Files.deleteIfExists(Paths.get("staleJournalTest/duke.txt"));
+            Files.deleteIfExists(Paths.get("staleJournalTest/duke.txt.prev"));
+            Files.deleteIfExists(Paths.get("staleJournalTest"));
+        } catch (DukeException | IOException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    @Test
+    public void load_fileLargerThanOneChunk_tasksInOrder() {
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            Task task = i % 2 == 0
+                ? new ToDo("task " + i)
+                : new Deadline("task " + i, LocalDateTime.of(2020, 8, 27, 23, 59));
+            tasks.add(i % 3 == 0 ? task.markDone() : task);
+        }
+
+        Storage storage = new Storage("largeFileTest");
+        storage.saveTasks(tasks);
+
+        try {
+            assertTrue(Files.size(Paths.get("largeFileTest/duke.txt")) > 1 << 20);
+            assertEquals(tasks, storage.load());
+
+            Files.deleteIfExists(Paths.get("largeFileTest/duke.txt"));
+            Files.deleteIfExists(Paths.get("largeFileTest/duke.txt.prev"));
+            Files.deleteIfExists(Paths.get("largeFileTest"));
+        } catch (DukeException | IOException e) {
+            System.out.println(e.getMessage());
+        }
+    }
 }
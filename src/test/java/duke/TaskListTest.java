@@ -1,19 +1,33 @@
 package duke;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.PrintWriter;
+import java.io.StringWriter;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.Test;
 
 import duke.exception.DukeException;
 import duke.exception.DuplicateTaskException;
+import duke.exception.InvalidEndDate;
 import duke.exception.InvalidIndexException;
+import duke.exception.InvalidPageException;
+import duke.exception.NoHistoryException;
 import duke.task.Deadline;
 import duke.task.Event;
 import duke.task.Task;
@@ -148,6 +162,49 @@ public class TaskListTest {
             listTemplate);
     }
 
+    @Test
+    public void find_exactAndSubstringModes_matchAccordingly() {
+        ArrayList<Task> list = new ArrayList<>();
+        list.add(new ToDo("study"));
+        list.add(new ToDo("Student council"));
+        list.add(new ToDo("read studies"));
+        TaskList taskList = new TaskList(list);
+
+        ArrayList<Task> exactTemplate = new ArrayList<>();
+        exactTemplate.add(new ToDo("study"));
+
+        ArrayList<Task> prefixTemplate = new ArrayList<>();
+        prefixTemplate.add(new ToDo("study"));
+        prefixTemplate.add(new ToDo("Student council"));
+        prefixTemplate.add(new ToDo("read studies"));
+
+        ArrayList<Task> substringTemplate = new ArrayList<>();
+        substringTemplate.add(new ToDo("Student council"));
+        substringTemplate.add(new ToDo("read studies"));
+
+        assertEquals(exactTemplate, taskList.findTasks(TaskList.SearchMode.EXACT, "Study"));
+        assertEquals(prefixTemplate, taskList.findTasks(TaskList.SearchMode.PREFIX, "stud"));
+        assertEquals(substringTemplate, taskList.findTasks(TaskList.SearchMode.SUBSTRING, "tudi", "dent"));
+    }
+
+    @Test
+    public void find_afterDelete_deletedTaskNotFound() {
+        ArrayList<Task> list = new ArrayList<>();
+        list.add(new ToDo("die"));
+        list.add(new ToDo("die hard"));
+        list.add(new ToDo("cry hard"));
+        TaskList taskList = new TaskList(list);
+
+        assertDoesNotThrow(() -> taskList.deleteTasks(2));
+        assertDoesNotThrow(() -> taskList.addToDo("hard work"));
+
+        ArrayList<Task> listTemplate = new ArrayList<>();
+        listTemplate.add(new ToDo("cry hard"));
+        listTemplate.add(new ToDo("hard work"));
+
+        assertEquals(listTemplate, taskList.findTasks("hard"));
+    }
+
     @Test
     public void printListTest1() {
         ArrayList<Task> list = new ArrayList<>();
@@ -182,6 +239,29 @@ public class TaskListTest {
         });
     }
 
+    @Test
+    public void findTasks_dateRange_tasksWithinRangeFound() {
+        ArrayList<Task> list = new ArrayList<>();
+        list.add(new Deadline("project",
+            LocalDateTime.of(LocalDate.parse("2020-08-27"), LocalTime.parse("23:59"))));
+        list.add(new Event("bfast", LocalDateTime.of(LocalDate.parse("2020-08-24"),
+            LocalTime.parse("10:00"))));
+        list.add(new Deadline("essay",
+            LocalDateTime.of(LocalDate.parse("2020-09-01"), LocalTime.parse("12:00"))));
+        TaskList taskList = new TaskList(list);
+
+        ArrayList<Task> listTemplate = new ArrayList<>();
+        listTemplate.add(new Deadline("project",
+            LocalDateTime.of(LocalDate.parse("2020-08-27"), LocalTime.parse("23:59"))));
+        listTemplate.add(new Event("bfast", LocalDateTime.of(LocalDate.parse("2020-08-24"),
+            LocalTime.parse("10:00"))));
+
+        assertEquals(listTemplate,
+            taskList.findTasks(LocalDate.parse("2020-08-24"), LocalDate.parse("2020-08-31")));
+        assertDoesNotThrow(() -> taskList.processList("list 2020-08-24 to 2020-08-31"));
+        assertThrows(InvalidEndDate.class, () -> taskList.processList("list 2020-08-31 to 2020-08-24"));
+    }
+
     @Test
     public void duplicateTaskTest() {
         ArrayList<Task> list = new ArrayList<>();
@@ -199,4 +279,376 @@ public class TaskListTest {
 
         assertThrows(InvalidIndexException.class, () -> taskList.deleteTasks(2));
     }
+
+    @Test
+    public void duplicateTask_afterDelete_canBeAddedAgain() {
+        ArrayList<Task> list = new ArrayList<>();
+        list.add(new ToDo("sleep"));
+        list.add(new ToDo("eat"));
+        TaskList taskList = new TaskList(list);
+
+        assertDoesNotThrow(() -> taskList.deleteTasks(1));
+        assertDoesNotThrow(() -> taskList.addToDo("sleep"));
+        assertThrows(DuplicateTaskException.class, () -> taskList.addToDo("eat"));
+    }
+
+    @Test
+    public void duplicateEvent_differentEndDate_notDuplicate() {
+        TaskList taskList = new TaskList();
+
+        assertDoesNotThrow(() -> taskList.addEvent("bfast /at 2020-08-24T10:00"));
+        assertDoesNotThrow(() -> taskList.addEvent("bfast /at 2020-08-24T10:00 to 12:00"));
+        assertThrows(DuplicateTaskException.class, () -> taskList.addEvent("bfast /at 2020-08-24T10:00"));
+    }
+
+    @Test
+    public void columnarStore_addDoneDelete_sameAsObjectList() {
+        List<Task> savedTasks = List.of(new ToDo("read book"),
+            new Deadline("read book", LocalDateTime.of(2020, 8, 27, 23, 59)),
+            new Event("lunch", LocalDateTime.of(2020, 8, 24, 12, 0), LocalDateTime.of(2020, 8, 24, 13, 0)).markDone(),
+            new Event("dinner", LocalDateTime.of(2020, 8, 24, 19, 0)));
+        try {
+
+            ColumnarTaskList columnarStore = new ColumnarTaskList(savedTasks);
+            assertEquals(savedTasks, columnarStore);
+            assertEquals(List.of(false, false, true, false),
+                columnarStore.stream().map(Task::isDone).collect(Collectors.toList()));
+
+            TaskList objectList = new TaskList(new ArrayList<>(savedTasks));
+            TaskList columnarList = new TaskList(columnarStore);
+            for (TaskList taskList : List.of(objectList, columnarList)) {
+                taskList.markDone(2, 4);
+                taskList.deleteTasks(1);
+                taskList.addToDo("return book");
+            }
+
+            assertEquals(objectList.getTasks(), columnarList.getTasks());
+            assertEquals(objectList.processList("list"), columnarList.processList("list"));
+            assertEquals(objectList.printTasks("book"), columnarList.printTasks("book"));
+            assertEquals(List.of(true, true, true, false),
+                columnarList.getTasks().stream().map(Task::isDone).collect(Collectors.toList()));
+            assertEquals(List.of(false, false, true, false),
+                columnarStore.stream().map(Task::isDone).collect(Collectors.toList()));
+
+        } catch (DukeException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    @Test
+    public void markDoneRange_thenDelete_doneStatusFollowsTasks() {
+        try {
+
+            TaskList taskList = new TaskList();
+            for (int i = 1; i <= 6; i++) {
+                taskList.addToDo("task " + i);
+            }
+
+            assertEquals("Nice! I've marked tasks 2 to 4 as done.", taskList.markDoneRange(2, 4));
+            taskList.deleteTasks(1, 3);
+
+            List<Task> tasks = taskList.getTasks();
+            assertEquals(List.of(true, true, false, false),
+                tasks.stream().map(Task::isDone).collect(Collectors.toList()));
+            assertEquals("task 4", tasks.get(1).getTask());
+
+            assertEquals("Nice! I've marked all 4 tasks as done.", taskList.markAllDone());
+            assertTrue(taskList.getTasks().stream().allMatch(Task::isDone));
+            assertEquals(List.of(true, true, false, false),
+                tasks.stream().map(Task::isDone).collect(Collectors.toList()));
+
+        } catch (DukeException e) {
+            System.out.println(e.getMessage());
+        }
+
+        assertThrows(InvalidIndexException.class, () -> new TaskList().markDoneRange(1, 2));
+    }
+
+    @Test
+    public void deleteTasks_unsortedDuplicatesAndPredicates_indexesKeptInSync() {
+        try {
+
+            List<Task> savedTasks = List.of(new ToDo("read book"),
+                new Deadline("return book", LocalDateTime.of(2020, 8, 27, 23, 59)),
+                new Event("book fair", LocalDateTime.of(2026, 3, 1, 10, 0)),
+                new ToDo("write essay").markDone(),
+                new Deadline("submit essay", LocalDateTime.of(2026, 2, 1, 23, 59)));
+            for (List<Task> store : List.<List<Task>>of(new ArrayList<>(savedTasks),
+                    new ColumnarTaskList(savedTasks))) {
+                TaskList taskList = new TaskList(store);
+                taskList.deleteTasks(3, 1, 3);
+                assertEquals(List.of(new Deadline("return book", LocalDateTime.of(2020, 8, 27, 23, 59)),
+                    new ToDo("write essay"), new Deadline("submit essay", LocalDateTime.of(2026, 2, 1, 23, 59))),
+                    taskList.getTasks());
+                assertEquals(List.of(taskList.getTasks().get(0)), taskList.findTasks("book"));
+                assertDoesNotThrow(() -> taskList.addToDo("read book"));
+
+                taskList.deleteTasks(taskList.getDoneTaskNumbers());
+                taskList.deleteTasks(taskList.getTaskNumbersBefore(LocalDate.of(2026, 1, 1)));
+                assertEquals(List.of(new Deadline("submit essay", LocalDateTime.of(2026, 2, 1, 23, 59)),
+                    new ToDo("read book")), taskList.getTasks());
+                assertEquals(List.of(), taskList.findTasks("write"));
+                assertEquals("There are no tasks to delete.", taskList.deleteTasks(taskList.getDoneTaskNumbers()));
+            }
+
+        } catch (DukeException e) {
+            System.out.println(e.getMessage());
+        }
+
+        assertThrows(InvalidIndexException.class, () -> new TaskList().deleteTasks(1));
+    }
+
+    @Test
+    public void getTaskNumbers_overlappingRanges_mergedAndCheckedAgainstList() {
+        TaskList taskList = new TaskList();
+        for (int i = 0; i < 10; i++) {
+            int taskNo = i;
+            assertDoesNotThrow(() -> taskList.addToDo("task " + taskNo));
+        }
+
+        assertArrayEquals(new int[] {2, 3, 4, 5, 6, 9},
+            assertDoesNotThrow(() -> taskList.getTaskNumbers(new int[] {4, 9, 2, 3}, new int[] {6, 9, 5, 3})));
+        assertArrayEquals(new int[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10},
+            assertDoesNotThrow(() -> taskList.getTaskNumbers(new int[] {1, 1}, new int[] {10, 10})));
+        assertThrows(InvalidIndexException.class,
+            () -> taskList.getTaskNumbers(new int[] {1}, new int[] {2_000_000_000}));
+        assertThrows(InvalidIndexException.class, () -> taskList.getTaskNumbers(new int[] {0}, new int[] {1}));
+        assertThrows(InvalidIndexException.class, () -> taskList.getTaskNumbers(new int[] {5}, new int[] {4}));
+    }
+
+    @Test
+    public void processList_pageOfList_onlyPageListed() {
+        TaskList taskList = new TaskList();
+        try {
+
+            for (int i = 1; i <= 5; i++) {
+                taskList.addToDo("task " + i);
+            }
+
+            assertEquals("Page 2 of 3 (tasks 3 to 4 of 5):\n3. " + new ToDo("task 3") + "\n4. " + new ToDo("task 4"),
+                taskList.processList("list --page 2 --size 2"));
+            assertEquals("Page 1 of 1 (tasks 1 to 5 of 5):\n" + taskList.processList("list"),
+                taskList.processList("list --page 1"));
+
+        } catch (DukeException e) {
+            System.out.println(e.getMessage());
+        }
+
+        assertThrows(InvalidPageException.class, () -> taskList.processList("list --page 4 --size 2"));
+        assertThrows(InvalidPageException.class, () -> taskList.processList("list --page 0"));
+        assertThrows(InvalidPageException.class, () -> taskList.processList("list --size"));
+    }
+
+    @Test
+    public void writeList_pagePastEnd_nothingWritten() {
+        TaskList taskList = new TaskList();
+        try {
+            taskList.addDeadline("project /by 2020-08-27");
+            taskList.addEvent("meeting /at 2020-08-27T14:00");
+        } catch (DukeException e) {
+            System.out.println(e.getMessage());
+        }
+
+        StringWriter dateList = new StringWriter();
+        assertThrows(InvalidPageException.class, () ->
+            taskList.writeList("list 2020-08-27 --page 99", new PrintWriter(dateList, true)));
+        assertEquals("", dateList.toString());
+
+        StringWriter rangeList = new StringWriter();
+        assertThrows(InvalidPageException.class, () ->
+            taskList.writeList("list 2020-08-26 to 2020-08-28 --page 99", new PrintWriter(rangeList, true)));
+        assertEquals("", rangeList.toString());
+    }
+
+    @Test
+    public void getTasks_readersDuringChanges_eachVersionConsistent() {
+        TaskList taskList = new TaskList();
+        AtomicBoolean isWriting = new AtomicBoolean(true);
+        ExecutorService readerThreads = Executors.newFixedThreadPool(8);
+
+        try {
+
+            List<CompletableFuture<Integer>> readers = new ArrayList<>();
+            for (int r = 0; r < 8; r++) {
+                readers.add(CompletableFuture.supplyAsync(() -> {
+                    int reads = 0;
+                    do {
+                        assertConsistent(taskList.getTasks());
+                        assertConsistent(taskList.findTasks(TaskList.SearchMode.SUBSTRING, "task"));
+                        assertConsistent(taskList.findTasks("task"));
+                        assertConsistent(taskList.findTasks(LocalDate.now(), LocalDate.now()));
+                        reads++;
+                    } while (isWriting.get());
+                    return reads;
+                }, readerThreads));
+            }
+
+            // Every change keeps the task numbers increasing and the done tasks at the start of the list
+            try {
+                for (int i = 0; i < 3000; i++) {
+                    taskList.addToDo("task " + i);
+                    if (i % 50 == 49) {
+                        taskList.markAllDone();
+                    } else if (i % 7 == 0) {
+                        taskList.markDoneRange(1, taskList.getTasks().size() / 2 + 1);
+                    }
+                    if (i % 3 == 0) {
+                        taskList.deleteTasks(1);
+                    }
+                }
+            } catch (DukeException e) {
+                System.out.println(e.getMessage());
+            } finally {
+                isWriting.set(false);
+            }
+
+            readers.forEach(reader -> assertTrue(reader.join() > 0));
+            assertEquals(2000, taskList.getTasks().size());
+            assertEquals("task 1000", taskList.getTasks().get(0).getTask());
+            assertConsistent(taskList.getTasks());
+
+        } finally {
+            readerThreads.shutdown();
+        }
+    }
+
+    @Test
+    public void findTasks_whileListLocked_readWithoutWaiting() {
+        TaskList taskList = new TaskList();
+        assertDoesNotThrow(() -> taskList.addToDo("read book"));
+        assertDoesNotThrow(() -> taskList.addDeadline("return book /by 2020-01-01"));
+
+        synchronized (taskList) {
+            CompletableFuture<List<Task>> found = CompletableFuture.supplyAsync(() -> taskList.findTasks("book"));
+            CompletableFuture<List<Task>> exact = CompletableFuture.supplyAsync(
+                () -> taskList.findTasks(TaskList.SearchMode.EXACT, "read"));
+            CompletableFuture<List<Task>> onDate = CompletableFuture.supplyAsync(
+                () -> taskList.findTasks(LocalDate.of(2020, 1, 1), LocalDate.of(2020, 1, 1)));
+            CompletableFuture<int[]> before = CompletableFuture.supplyAsync(
+                () -> taskList.getTaskNumbersBefore(LocalDate.of(2020, 1, 2)));
+
+            assertEquals(2, assertDoesNotThrow(() -> found.get(10, TimeUnit.SECONDS)).size());
+            assertEquals(List.of(new ToDo("read book")),
+                assertDoesNotThrow(() -> exact.get(10, TimeUnit.SECONDS)));
+            assertEquals(1, assertDoesNotThrow(() -> onDate.get(10, TimeUnit.SECONDS)).size());
+            assertArrayEquals(new int[] {2}, assertDoesNotThrow(() -> before.get(10, TimeUnit.SECONDS)));
+        }
+    }
+
+    @Test
+    public void undoRedo_addDoneDelete_versionsRestored() {
+        TaskList taskList = new TaskList();
+
+        try {
+
+            taskList.addToDo("sleep");
+            taskList.addToDo("eat");
+            taskList.markDone(2);
+            List<Task> marked = taskList.getTasks();
+            taskList.deleteTasks(1);
+
+            assertEquals("I've undone deleting 1 task.\nYou have 2 tasks on your list.", taskList.undo());
+            assertEquals(marked, taskList.getTasks());
+            assertTrue(taskList.getTasks().get(1).isDone());
+            assertEquals("I've undone marking 1 task as done.\nYou have 2 tasks on your list.", taskList.undo());
+            assertTrue(!taskList.getTasks().get(1).isDone());
+            assertEquals("I've undone adding [T][✗]  eat.\nYou have 1 task on your list.", taskList.undo());
+            assertEquals(List.of(new ToDo("sleep")), taskList.getTasks());
+
+            assertEquals("I've redone adding [T][✗]  eat.\nYou have 2 tasks on your list.", taskList.redo());
+            assertEquals(List.of(new ToDo("sleep"), new ToDo("eat")), taskList.getTasks());
+
+            // A new change cannot be followed by redoing the changes undone before it
+            taskList.addToDo("read");
+            assertThrows(NoHistoryException.class, taskList::redo);
+            assertEquals(List.of(new ToDo("sleep"), new ToDo("eat"), new ToDo("read")), taskList.getTasks());
+
+        } catch (DukeException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    @Test
+    public void undoRedo_addAndDelete_indexesFollowTasks() {
+        TaskList taskList = new TaskList();
+
+        assertDoesNotThrow(() -> taskList.addToDo("sleep"));
+        assertDoesNotThrow(taskList::undo);
+        assertTrue(taskList.findTasks("sleep").isEmpty());
+        assertDoesNotThrow(() -> taskList.addToDo("sleep"));
+
+        assertDoesNotThrow(() -> taskList.addToDo("eat"));
+        assertDoesNotThrow(() -> taskList.deleteTasks(1));
+        assertDoesNotThrow(taskList::undo);
+        assertEquals(List.of(new ToDo("sleep")), taskList.findTasks("sleep"));
+        assertThrows(DuplicateTaskException.class, () -> taskList.addToDo("sleep"));
+
+        assertDoesNotThrow(taskList::redo);
+        assertTrue(taskList.findTasks("sleep").isEmpty());
+        assertEquals(List.of(new ToDo("eat")), taskList.findTasks("eat"));
+    }
+
+    @Test
+    public void undo_pastHistoryDepth_oldestChangesForgotten() {
+        TaskList taskList = new TaskList(List.of(), new TaskHistory(), 2);
+
+        assertDoesNotThrow(() -> taskList.addToDo("sleep"));
+        assertDoesNotThrow(() -> taskList.addToDo("eat"));
+        assertDoesNotThrow(() -> taskList.addToDo("read"));
+        assertDoesNotThrow(taskList::undo);
+        assertDoesNotThrow(taskList::undo);
+        assertThrows(NoHistoryException.class, taskList::undo);
+        assertEquals(List.of(new ToDo("sleep")), taskList.getTasks());
+
+        TaskList noHistory = new TaskList(List.of(), new TaskHistory(), 0);
+        assertDoesNotThrow(() -> noHistory.addToDo("sleep"));
+        assertThrows(NoHistoryException.class, noHistory::undo);
+    }
+
+    @Test
+    public void undo_deleteFromLargeList_previousVersionShared() {
+        ArrayList<Task> list = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            list.add(new ToDo("task " + i));
+        }
+        TaskList taskList = new TaskList(list);
+
+        try {
+
+            List<Task> before = taskList.getTasks();
+            for (int i = 0; i < 100; i++) {
+                taskList.deleteTasks(50_000 - i * 7);
+                taskList.markDone(1 + i);
+            }
+            assertEquals(100_000 - 100, taskList.getTasks().size());
+
+            for (int i = 0; i < 200; i++) {
+                taskList.undo();
+            }
+            assertEquals(list, taskList.getTasks());
+            assertEquals(before, taskList.getTasks());
+            assertTrue(taskList.getTasks().stream().noneMatch(Task::isDone));
+
+        } catch (DukeException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    /** Checks that the tasks of a version have increasing numbers, with the done tasks at the start. */
+    private static void assertConsistent(List<Task> tasks) {
+        int size = tasks.size();
+        int count = 0;
+        int previousNumber = -1;
+        boolean isPreviousDone = true;
+        for (Task task : tasks) {
+            int number = Integer.parseInt(task.getTask().substring("task ".length()));
+            assertTrue(number > previousNumber);
+            assertTrue(isPreviousDone || !task.isDone());
+            previousNumber = number;
+            isPreviousDone = task.isDone();
+            count++;
+        }
+
+        assertEquals(size, count);
+    }
 }